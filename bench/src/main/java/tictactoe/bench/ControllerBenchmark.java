@@ -0,0 +1,74 @@
+package tictactoe.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tictactoe.NioTicTacToeController;
+import tictactoe.TicTacToeConsoleController;
+import tictactoe.TicTacToeModel;
+
+/**
+ * Benchmarks of replaying a scripted game through the console controller, reading from a
+ * StringReader, and through the byte channel controller.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ControllerBenchmark {
+
+  /**
+   * A whole game ending in a tie, with one bad token and one occupied cell along the way.
+   */
+  static final String SCRIPT = "2 2 1 1 x 3 3 3 3 1 2 1 3 2 3 2 1 3 1 3 2";
+
+  private final StringBuilder consoleOutput = new StringBuilder(4096);
+  private final ByteArrayOutputStream nioOutput = new ByteArrayOutputStream(4096);
+  private byte[] scriptBytes;
+
+  /**
+   * Encode the script for the byte channel controller.
+   */
+  @Setup
+  public void setUp() {
+    scriptBytes = SCRIPT.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Replay the script through the console controller.
+   */
+  @Benchmark
+  public int consoleController() {
+    consoleOutput.setLength(0);
+    new TicTacToeConsoleController(new StringReader(SCRIPT), consoleOutput)
+        .playGame(new TicTacToeModel());
+    return consoleOutput.length();
+  }
+
+  /**
+   * Replay the script through the byte channel controller.
+   */
+  @Benchmark
+  public int nioController() {
+    nioOutput.reset();
+    new NioTicTacToeController(Channels.newChannel(new ByteArrayInputStream(scriptBytes)),
+        Channels.newChannel(nioOutput))
+        .playGame(new TicTacToeModel());
+    return nioOutput.size();
+  }
+}
@@ -0,0 +1,121 @@
+package tictactoe.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tictactoe.BitboardTicTacToeModel;
+import tictactoe.BoardView;
+import tictactoe.Player;
+import tictactoe.TicTacToe;
+import tictactoe.TicTacToeModel;
+
+/**
+ * Benchmarks of the model's hot paths: making moves (which includes the win check), and
+ * reading the board through getBoard(), toString() and the board view.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelBenchmark {
+
+  /**
+   * The moves of a game that ends in a tie after nine moves, as row, column pairs.
+   */
+  static final int[] TIE_GAME = {1, 1, 0, 0, 2, 2, 0, 1, 0, 2, 1, 2, 1, 0, 2, 0, 2, 1};
+
+  @Param({"model", "bitboard"})
+  public String implementation;
+
+  private TicTacToe game;
+  private TicTacToe midGame;
+
+  /**
+   * Create an empty game and a game four moves in.
+   */
+  @Setup
+  public void setUp() {
+    game = newGame(implementation);
+    midGame = newGame(implementation);
+    for (int i = 0; i < 8; i += 2) {
+      midGame.move(TIE_GAME[i], TIE_GAME[i + 1]);
+    }
+  }
+
+  /**
+   * Returns a new game of the named implementation.
+   */
+  static TicTacToe newGame(String implementation) {
+    return "bitboard".equals(implementation) ? new BitboardTicTacToeModel()
+        : new TicTacToeModel();
+  }
+
+  /**
+   * Play a whole game on one model, then take every move back to reuse it.
+   */
+  @Benchmark
+  public boolean playAndUndo() {
+    for (int i = 0; i < TIE_GAME.length; i += 2) {
+      game.move(TIE_GAME[i], TIE_GAME[i + 1]);
+    }
+    boolean over = game.isGameOver();
+    for (int i = 0; i < TIE_GAME.length; i += 2) {
+      game.undo();
+    }
+    return over;
+  }
+
+  /**
+   * Play a whole game on a new model.
+   */
+  @Benchmark
+  public TicTacToe playNewGame() {
+    TicTacToe g = newGame(implementation);
+    for (int i = 0; i < TIE_GAME.length; i += 2) {
+      g.move(TIE_GAME[i], TIE_GAME[i + 1]);
+    }
+    return g;
+  }
+
+  /**
+   * Copy the board.
+   */
+  @Benchmark
+  public Player[][] getBoard() {
+    return midGame.getBoard();
+  }
+
+  /**
+   * Draw the board as text.
+   */
+  @Benchmark
+  public String toStringBoard() {
+    return midGame.toString();
+  }
+
+  /**
+   * Read every cell through the live board view.
+   */
+  @Benchmark
+  public int readBoardView() {
+    BoardView view = midGame.getBoardView();
+    int marks = 0;
+    for (int cell = 0; cell < 9; cell++) {
+      if (view.getMarkAt(cell) != null) {
+        marks++;
+      }
+    }
+    return marks;
+  }
+}
@@ -0,0 +1,71 @@
+package tictactoe.bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tictactoe.BoardView;
+import tictactoe.Player;
+import tictactoe.TicTacToe;
+
+/**
+ * Benchmarks of full random games played to the end, the inner loop of any simulation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayoutBenchmark {
+
+  @Param({"model", "bitboard"})
+  public String implementation;
+
+  private TicTacToe game;
+  private SplittableRandom random;
+  private final int[] empty = new int[9];
+
+  /**
+   * Create the reused game and a seeded random source.
+   */
+  @Setup
+  public void setUp() {
+    game = ModelBenchmark.newGame(implementation);
+    random = new SplittableRandom(42);
+  }
+
+  /**
+   * Play one random game to the end on the reused model, then take it back.
+   */
+  @Benchmark
+  public Player randomPlayout() {
+    int moves = 0;
+    BoardView view = game.getBoardView();
+    while (!game.isGameOver()) {
+      int count = 0;
+      for (int cell = 0; cell < 9; cell++) {
+        if (view.getMarkAt(cell) == null) {
+          empty[count++] = cell;
+        }
+      }
+      int cell = empty[random.nextInt(count)];
+      game.move(cell / 3, cell % 3);
+      moves++;
+    }
+    Player winner = game.getWinner();
+    for (int i = 0; i < moves; i++) {
+      game.undo();
+    }
+    return winner;
+  }
+}
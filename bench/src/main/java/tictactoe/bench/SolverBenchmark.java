@@ -0,0 +1,128 @@
+package tictactoe.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import tictactoe.BatchEvaluator;
+import tictactoe.GameTreeTable;
+import tictactoe.GameTreeTableGenerator;
+import tictactoe.Player;
+import tictactoe.TicTacToe;
+import tictactoe.TicTacToeModel;
+import tictactoe.TicTacToeSolver;
+
+/**
+ * Benchmarks of finding a best move with a warm solver, with the precomputed table, and for
+ * a batch of positions at once.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+  private static final int BATCH = 4096;
+
+  private TicTacToe empty;
+  private TicTacToe midGame;
+  private TicTacToeSolver solver;
+  private GameTreeTable table;
+  private Path tableFile;
+  private BatchEvaluator evaluator;
+  private int[] xs;
+  private int[] os;
+  private byte[] winners;
+  private byte[] outcomes;
+  private byte[] bestMoves;
+
+  /**
+   * Warm the solver with a full solve, generate and map the table, and pack a batch of
+   * positions from random games.
+   */
+  @Setup
+  public void setUp() throws IOException {
+    empty = new TicTacToeModel();
+    midGame = new TicTacToeModel();
+    midGame.move(1, 1);
+    midGame.move(0, 0);
+    midGame.move(2, 2);
+    solver = TicTacToeSolver.forGame(empty);
+    solver.bestMove(empty);
+    tableFile = Files.createTempFile("tictactoe", ".table");
+    GameTreeTableGenerator.generate(tableFile);
+    table = GameTreeTable.load(tableFile);
+
+    evaluator = new BatchEvaluator(3, 3, 3);
+    SplittableRandom random = new SplittableRandom(1);
+    xs = new int[BATCH];
+    os = new int[BATCH];
+    int[] moves = new int[9];
+    for (int i = 0; i < BATCH; i++) {
+      TicTacToe game = new TicTacToeModel();
+      for (int p = random.nextInt(10); p > 0 && !game.isGameOver(); p--) {
+        int cell = moves[random.nextInt(game.getLegalMoves(moves))];
+        (game.getTurn() == Player.X ? xs : os)[i] |= 1 << cell;
+        game.move(cell / 3, cell % 3);
+      }
+    }
+    winners = new byte[BATCH];
+    outcomes = new byte[BATCH];
+    bestMoves = new byte[BATCH];
+  }
+
+  /**
+   * Delete the table file.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(tableFile);
+  }
+
+  /**
+   * Best move from the empty board with a warm solver.
+   */
+  @Benchmark
+  public int solverEmptyBoard() {
+    return solver.bestMove(empty);
+  }
+
+  /**
+   * Best move three moves in with a warm solver.
+   */
+  @Benchmark
+  public int solverMidGame() {
+    return solver.bestMove(midGame);
+  }
+
+  /**
+   * Best move three moves in from the table.
+   */
+  @Benchmark
+  public int tableMidGame() {
+    return table.getBestMove(midGame);
+  }
+
+  /**
+   * Outcome and best move of 4096 positions from random games, in one batch.
+   */
+  @Benchmark
+  public byte batchOfPositions() {
+    evaluator.evaluate(xs, os, winners, outcomes, bestMoves);
+    return outcomes[BATCH - 1];
+  }
+}
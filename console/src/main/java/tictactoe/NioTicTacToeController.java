@@ -0,0 +1,79 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Controller implementation of Tic Tac Toe game over byte channels.
+ * It plays the same text protocol as {@link TicTacToeConsoleController}, with the same
+ * output, but parses moves straight from a reusable {@link ByteBuffer} and writes responses
+ * from another, without a {@link java.util.Scanner} or any intermediate strings.
+ * This makes it the cheaper way to replay scripted games.
+ */
+public class NioTicTacToeController implements TicTacToeController {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final ReadableByteChannel in;
+  private final WritableByteChannel out;
+
+  /**
+   * Constructor for the controller.
+   *
+   * @param in  the channel the user's input is read from.
+   * @param out the channel the output of the Tic Tac Toe game is written to.
+   */
+  public NioTicTacToeController(ReadableByteChannel in, WritableByteChannel out) {
+    this.in = in;
+    this.out = out;
+  }
+
+  @Override
+  public void playGame(TicTacToe m) throws IllegalStateException {
+    if (m == null) {
+      throw new IllegalArgumentException("Model cannot be null.");
+    }
+
+    TicTacToeProtocol protocol = new TicTacToeProtocol(m);
+    ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+    ByteBuffer output = ByteBuffer.allocate(Math.max(BUFFER_SIZE,
+        2 * protocol.maxResponseBytes()));
+    try {
+      protocol.start(output);
+      while (!protocol.isFinished()) {
+        if (in.read(input) < 0) {
+          protocol.endOfInput(output);
+          drain(output);
+          if (!protocol.isFinished()) {
+            throw new IllegalStateException("Input stream closed before game ended.");
+          }
+          return;
+        }
+        input.flip();
+        protocol.consume(input, output);
+        while (input.hasRemaining() && !protocol.isFinished()) {
+          // the output buffer is full: send it and carry on with the same input
+          drain(output);
+          protocol.consume(input, output);
+        }
+        input.clear();
+      }
+      drain(output);
+    } catch (IOException e) {
+      throw new IllegalStateException("Error writing to output", e);
+    }
+  }
+
+  /**
+   * Writes everything in the output buffer to the channel and empties the buffer.
+   */
+  private void drain(ByteBuffer output) throws IOException {
+    output.flip();
+    while (output.hasRemaining()) {
+      out.write(output);
+    }
+    output.clear();
+  }
+}
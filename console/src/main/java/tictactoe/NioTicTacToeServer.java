@@ -0,0 +1,216 @@
+package tictactoe;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+
+/**
+ * A non-blocking TCP server for Tic Tac Toe, driven by a single {@link Selector} thread.
+ * Every connection plays its own game with the text protocol of
+ * {@link TicTacToeConsoleController}: the player enters the moves for both sides, and sees
+ * the same boards, prompts and messages as on the console. Input is parsed straight from
+ * each connection's buffer, and responses are written from a buffer reused for the whole
+ * connection, so an idle player costs only its two buffers and no thread.
+ */
+public class NioTicTacToeServer implements Closeable {
+
+  private static final int INPUT_BUFFER_SIZE = 1024;
+
+  private final Selector selector;
+  private final ServerSocketChannel serverChannel;
+  private final int rows;
+  private final int cols;
+  private final int winLength;
+
+  /**
+   * Construct a server for games on a board of the given size and win length.
+   *
+   * @param port      the port to listen on, or 0 for any free port
+   * @param rows      the number of rows on the board
+   * @param cols      the number of columns on the board
+   * @param winLength the number of marks in a row needed to win
+   * @throws IOException if the port cannot be opened
+   */
+  public NioTicTacToeServer(int port, int rows, int cols, int winLength) throws IOException {
+    // fail now rather than on the first connection
+    new TicTacToeModel(rows, cols, winLength);
+    this.rows = rows;
+    this.cols = cols;
+    this.winLength = winLength;
+    selector = Selector.open();
+    serverChannel = ServerSocketChannel.open();
+    serverChannel.bind(new InetSocketAddress(port), 1024);
+    serverChannel.configureBlocking(false);
+    serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+  }
+
+  /**
+   * Run the server for three-by-three games on the port given as the first argument,
+   * 8080 by default.
+   *
+   * @param args command line arguments: the port
+   * @throws IOException if the port cannot be opened
+   */
+  public static void main(String[] args) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+    try (NioTicTacToeServer server = new NioTicTacToeServer(port, 3, 3, 3)) {
+      System.out.println("Listening on port " + server.getPort());
+      server.serve();
+    }
+  }
+
+  /**
+   * Return the port the server is listening on.
+   *
+   * @return the local port
+   * @throws IOException if the port cannot be read
+   */
+  public int getPort() throws IOException {
+    return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+  }
+
+  /**
+   * Serve connections until the server is closed.
+   *
+   * @throws IOException if the selector fails
+   */
+  public void serve() throws IOException {
+    while (selector.isOpen()) {
+      selector.select();
+      if (!selector.isOpen()) {
+        return;
+      }
+      Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+      while (keys.hasNext()) {
+        SelectionKey key = keys.next();
+        keys.remove();
+        if (!key.isValid()) {
+          continue;
+        }
+        if (key.isAcceptable()) {
+          accept();
+          continue;
+        }
+        try {
+          if (key.isReadable()) {
+            ((Connection) key.attachment()).read(key);
+          } else if (key.isWritable()) {
+            ((Connection) key.attachment()).write(key);
+          }
+        } catch (IOException e) {
+          // the player disconnected
+          key.channel().close();
+        }
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (SelectionKey key : selector.keys()) {
+      key.channel().close();
+    }
+    selector.close();
+  }
+
+  /**
+   * Accepts a waiting connection, starts its game and sends the first prompt. A player who
+   * is already gone only loses their own connection.
+   *
+   * @throws IOException if the server socket fails to accept
+   */
+  private void accept() throws IOException {
+    SocketChannel channel = serverChannel.accept();
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.configureBlocking(false);
+      Connection connection = new Connection(new TicTacToeModel(rows, cols, winLength));
+      SelectionKey key = channel.register(selector, SelectionKey.OP_READ, connection);
+      connection.protocol.start(connection.output);
+      connection.flush(key);
+    } catch (IOException e) {
+      // the player disconnected
+      channel.close();
+    }
+  }
+
+  /**
+   * The game and buffers of one connection.
+   */
+  private static final class Connection {
+    private final TicTacToeProtocol protocol;
+    private final ByteBuffer input;
+    private final ByteBuffer output;
+    private boolean endOfInput;
+
+    private Connection(TicTacToe model) {
+      protocol = new TicTacToeProtocol(model);
+      input = ByteBuffer.allocateDirect(INPUT_BUFFER_SIZE);
+      output = ByteBuffer.allocateDirect(2 * protocol.maxResponseBytes());
+    }
+
+    /**
+     * Reads what the player sent, and answers it.
+     */
+    private void read(SelectionKey key) throws IOException {
+      if (((SocketChannel) key.channel()).read(input) < 0) {
+        endOfInput = true;
+      }
+      process(key);
+    }
+
+    /**
+     * Sends pending output, then goes on with any input that was waiting for room.
+     */
+    private void write(SelectionKey key) throws IOException {
+      flush(key);
+      if (key.isValid() && output.position() == 0) {
+        process(key);
+      }
+    }
+
+    /**
+     * Parses buffered input into responses and sends them.
+     */
+    private void process(SelectionKey key) throws IOException {
+      do {
+        input.flip();
+        protocol.consume(input, output);
+        if (endOfInput && !input.hasRemaining()) {
+          protocol.endOfInput(output);
+        }
+        input.compact();
+        flush(key);
+        // carry on while the socket keeps taking everything and input is left over
+      } while (key.isValid() && output.position() == 0 && input.position() > 0
+          && !protocol.isFinished());
+    }
+
+    /**
+     * Writes as much output as the socket takes. While output is left over the connection
+     * waits to write and stops reading; once everything is sent, a finished game or a
+     * closed input ends the connection.
+     */
+    private void flush(SelectionKey key) throws IOException {
+      SocketChannel channel = (SocketChannel) key.channel();
+      output.flip();
+      channel.write(output);
+      output.compact();
+      if (output.position() > 0) {
+        key.interestOps(SelectionKey.OP_WRITE);
+      } else if (protocol.isFinished() || (endOfInput && input.position() == 0)) {
+        channel.close();
+      } else {
+        key.interestOps(SelectionKey.OP_READ);
+      }
+    }
+  }
+}
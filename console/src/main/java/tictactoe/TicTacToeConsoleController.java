@@ -0,0 +1,364 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * Controller implementation of Tic Tac Toe game.
+ * Allows users to play the game on the console. Each side is played either by a person
+ * typing moves, or by the computer choosing them with a {@link MovePolicy}, such as a
+ * solver, a random bot or a {@link RemoteMovePolicy remote player}. The two people may type
+ * on one input, taking turns, or each on an input of their own, which is then only read on
+ * that side's turn.
+ */
+public class TicTacToeConsoleController implements TicTacToeController {
+
+  final Readable in;
+  // where O types, if not on the same input as X
+  private final Readable oIn;
+  final Appendable out;
+  private final Map<Player, MovePolicy> computers;
+  // the board as drawn last, kept so the grid is only drawn again for a new board size
+  private char[] frame;
+  private CharBuffer frameText;
+  private int frameRows;
+  private int frameCols;
+
+  /**
+   * Constructor for the controller.
+   *
+   * @param in  the input provided by the user.
+   * @param out the output of the Tic Tac Toe game.
+   */
+  public TicTacToeConsoleController(Readable in, Appendable out) {
+    this(in, out, Map.of());
+  }
+
+  /**
+   * Constructor for a controller where each side types on an input of its own, such as a
+   * connection to each player. An input is only read on its own side's turn, so whatever
+   * one player types out of turn waits there and is never taken as the other's move.
+   *
+   * @param xIn the input of the player of X.
+   * @param oIn the input of the player of O.
+   * @param out the output of the Tic Tac Toe game, seen by both players.
+   * @throws IllegalArgumentException if an input is null
+   */
+  public TicTacToeConsoleController(Readable xIn, Readable oIn, Appendable out) {
+    this(xIn, oIn, out, Map.of());
+    if (xIn == null || oIn == null) {
+      throw new IllegalArgumentException("Inputs cannot be null.");
+    }
+  }
+
+  /**
+   * Constructor for a controller where the computer plays one side.
+   *
+   * @param in       the input provided by the user.
+   * @param out      the output of the Tic Tac Toe game.
+   * @param computer the side the computer plays.
+   * @param policy   how the computer chooses its moves.
+   * @throws IllegalArgumentException if the side or the policy is null
+   */
+  public TicTacToeConsoleController(Readable in, Appendable out, Player computer,
+      MovePolicy policy) {
+    this(in, out, single(computer, policy));
+  }
+
+  /**
+   * Constructor for a controller where the computer plays any sides.
+   *
+   * @param in        the input provided by the user.
+   * @param out       the output of the Tic Tac Toe game.
+   * @param computers how the computer chooses the moves of each side it plays; the sides
+   *                  missing from the map are played by the user.
+   * @throws IllegalArgumentException if the map is null or holds a null side or policy
+   */
+  public TicTacToeConsoleController(Readable in, Appendable out,
+      Map<Player, ? extends MovePolicy> computers) {
+    this(in, null, out, computers);
+  }
+
+  private TicTacToeConsoleController(Readable in, Readable oIn, Appendable out,
+      Map<Player, ? extends MovePolicy> computers) {
+    if (computers == null) {
+      throw new IllegalArgumentException("Computer sides and policies cannot be null.");
+    }
+    this.in = in;
+    this.oIn = oIn;
+    this.out = out;
+    this.computers = new EnumMap<>(Player.class);
+    for (Map.Entry<Player, ? extends MovePolicy> entry : computers.entrySet()) {
+      if (entry.getKey() == null || entry.getValue() == null) {
+        throw new IllegalArgumentException("Computer sides and policies cannot be null.");
+      }
+      this.computers.put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private static Map<Player, MovePolicy> single(Player computer, MovePolicy policy) {
+    if (computer == null || policy == null) {
+      throw new IllegalArgumentException("Computer side and policy cannot be null.");
+    }
+    return Map.of(computer, policy);
+  }
+
+  @Override
+  public void playGame(TicTacToe m) throws IllegalStateException {
+    if (m == null) {
+      throw new IllegalArgumentException("Model cannot be null.");
+    }
+
+    Scanner xScan = new Scanner(this.in);
+    Scanner oScan = oIn == null ? xScan : new Scanner(oIn);
+    List<Integer> pair = new ArrayList<>();
+    while (!m.isGameOver()) {
+      MovePolicy policy = computers.get(m.getTurn());
+      if (policy != null) {
+        playComputerMove(m, policy);
+        continue;
+      }
+
+      // ask for user input
+      printMovePrompt(m);
+
+      pair.clear();
+      Scanner scan = m.getTurn() == Player.X ? xScan : oScan;
+
+      while (pair.size() < 2) {
+        if (!scan.hasNext()) {
+          throw new IllegalStateException("Input stream closed before game ended.");
+        }
+        String item = scan.next();
+
+        // check for quit command
+        if ("q".equalsIgnoreCase(item)) {
+          printGameQuit(m);
+          return;
+        }
+
+        // check for valid number
+        try {
+          int num = Integer.parseInt(item);
+          pair.add(num);
+        } catch (NumberFormatException e) {
+          printInvalidNumber(item);
+        }
+      }
+
+      int row = pair.get(0) - 1;
+      int col = pair.get(1) - 1;
+
+      // move
+      if (m.tryMove(row, col) != MoveStatus.OK) {
+        printInvalidMove(row, col);
+      }
+    }
+
+    //output final game state and result
+    printGameResult(m);
+  }
+
+
+  /**
+   * Makes the computer's move and prints it.
+   *
+   * @throws IllegalStateException if the policy chooses a move that is not legal, after
+   *                               printing it as an invalid move
+   */
+  private void playComputerMove(TicTacToe m, MovePolicy policy) {
+    Player player = m.getTurn();
+    int cell = policy.chooseMove(m);
+    int row = Math.floorDiv(cell, m.getColumns());
+    int col = Math.floorMod(cell, m.getColumns());
+    if (m.tryMove(row, col) != MoveStatus.OK) {
+      printInvalidMove(row, col);
+      throw new IllegalStateException("Computer player chose an invalid move.");
+    }
+    try {
+      this.out.append(player == Player.X ? "X" : "O").append(" plays ");
+      appendMove(row, col);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+
+  /**
+   * Prints the current game state to the console.
+   */
+  private void printGameState(TicTacToe m) {
+    try {
+      appendBoard(m);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+
+  /**
+   * Appends the board as {@link TicTacToeModel#toString()} draws it, and a newline. The
+   * grid is drawn once for each board size and kept, and each call only writes the current
+   * marks into it. The characters go straight to a {@link Writer}, {@link PrintStream} or
+   * {@link StringBuilder}, so printing to any of those creates no strings; other kinds of
+   * output may still copy the board into a string of their own.
+   */
+  private void appendBoard(TicTacToe m) throws IOException {
+    BoardView view = m.getBoardView();
+    int rows = view.getRows();
+    int cols = view.getColumns();
+    if (frame == null || rows != frameRows || cols != frameCols) {
+      frame = drawGrid(rows, cols);
+      frameText = CharBuffer.wrap(frame);
+      frameRows = rows;
+      frameCols = cols;
+    }
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        Player p = view.getMarkAt(i * cols + j);
+        // a row takes 4 * cols - 1 characters and the line under it 4 * cols
+        frame[(8 * cols - 1) * i + 4 * j + 1] = p == null ? ' ' : p == Player.X ? 'X' : 'O';
+      }
+    }
+    // Appendable.append(CharSequence) on a Writer or PrintStream makes a string of it first
+    if (this.out instanceof Writer) {
+      ((Writer) this.out).write(frame, 0, frame.length);
+    } else if (this.out instanceof PrintStream) {
+      ((PrintStream) this.out).print(frame);
+    } else {
+      this.out.append(frameText);
+    }
+  }
+
+
+  /**
+   * Returns the text of an empty board, each row ending with a newline.
+   */
+  private static char[] drawGrid(int rows, int cols) {
+    StringBuilder sb = new StringBuilder((8 * cols - 1) * rows - 4 * cols);
+    for (int i = 0; i < rows; i++) {
+      if (i > 0) {
+        for (int j = 0; j < 4 * cols - 1; j++) {
+          sb.append('-');
+        }
+        sb.append('\n');
+      }
+      for (int j = 0; j < cols; j++) {
+        sb.append(j > 0 ? " |  " : "  ");
+      }
+      sb.append('\n');
+    }
+    char[] grid = new char[sb.length()];
+    sb.getChars(0, grid.length, grid, 0);
+    return grid;
+  }
+
+
+  /**
+   * Appends a move as its 1-based row and column, and a newline.
+   */
+  private void appendMove(int row, int col) throws IOException {
+    appendInt(row + 1);
+    this.out.append(", ");
+    appendInt(col + 1);
+    this.out.append('\n');
+  }
+
+
+  /**
+   * Appends the decimal digits of an int without creating a string.
+   */
+  private void appendInt(int value) throws IOException {
+    long v = value;
+    if (v < 0) {
+      this.out.append('-');
+      v = -v;
+    }
+    long divisor = 1;
+    while (divisor * 10 <= v) {
+      divisor *= 10;
+    }
+    for (; divisor > 0; divisor /= 10) {
+      this.out.append((char) ('0' + (v / divisor) % 10));
+    }
+  }
+
+
+  /**
+   * Prints the prompt asking the user to enter a move.
+   */
+  private void printMovePrompt(TicTacToe m) {
+    try {
+      printGameState(m);
+      this.out.append("Enter a move for ").append(m.getTurn() == Player.X ? "X" : "O")
+          .append(":\n");
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+
+  /**
+   * Prints the final game state and result to the console.
+   */
+  private void printGameResult(TicTacToe m) {
+    try {
+      printGameState(m);
+      this.out.append("Game is over! ");
+      if (m.getWinner() == null) {
+        this.out.append("Tie game.\n");
+      } else if (m.getWinner() == Player.X) {
+        this.out.append("X wins.\n");
+      } else {
+        this.out.append("O wins.\n");
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Error writing to output", e);
+    }
+  }
+
+
+  /**
+   * Prints the quit message and ending game state to the console.
+   */
+  private void printGameQuit(TicTacToe m) {
+    try {
+      out.append("Game quit! Ending game state:\n");
+      appendBoard(m);
+    } catch (IOException e) {
+      throw new IllegalStateException("Error writing to output", e);
+    }
+  }
+
+
+  /**
+   * Prints that the given input is not a number.
+   */
+  private void printInvalidNumber(String item) {
+    try {
+      this.out.append("Not a valid number: ").append(item).append('\n');
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+
+  /**
+   * Prints that the given move is not valid.
+   */
+  private void printInvalidMove(int row, int col) {
+    try {
+      this.out.append("Not a valid move: ");
+      appendMove(row, col);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
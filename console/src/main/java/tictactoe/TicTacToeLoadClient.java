@@ -0,0 +1,89 @@
+package tictactoe;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A load generator for {@link TicTacToeServer}. It opens many connections to the server,
+ * each on its own thread, and answers every prompt for its own side with a random move
+ * until the game ends. Invalid random moves are simply answered again, as a person would.
+ */
+public class TicTacToeLoadClient {
+
+  /**
+   * How long a player waits for the server, so a player left without an opponent gives up.
+   */
+  private static final int READ_TIMEOUT_MILLIS = 10_000;
+
+  /**
+   * Run the load generator.
+   *
+   * @param args command line arguments: host, port and number of connections, defaulting
+   *             to localhost, 8080 and 1000
+   * @throws InterruptedException if interrupted while waiting for the games
+   */
+  public static void main(String[] args) throws InterruptedException {
+    String host = args.length > 0 ? args[0] : "localhost";
+    int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+    int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+    AtomicInteger finished = new AtomicInteger();
+    AtomicInteger failed = new AtomicInteger();
+    long start = System.nanoTime();
+    ExecutorService executor = TicTacToeServer.newThreadPerTaskExecutor();
+    for (int i = 0; i < connections; i++) {
+      executor.execute(() -> {
+        try {
+          play(host, port);
+          finished.incrementAndGet();
+        } catch (IOException e) {
+          failed.incrementAndGet();
+        }
+      });
+    }
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.HOURS);
+    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    System.out.println(connections + " players: " + finished.get() + " finished, "
+        + failed.get() + " failed, in " + millis + " ms");
+  }
+
+  /**
+   * Connects one player to the server and plays random moves until the game ends.
+   *
+   * @param host the server host
+   * @param port the server port
+   * @throws IOException if the connection fails or closes before the game ends
+   */
+  static void play(String host, int port) throws IOException {
+    try (Socket socket = new Socket(host, port)) {
+      socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+      BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+          StandardCharsets.UTF_8));
+      OutputStream out = socket.getOutputStream();
+      String prompt = null;
+      String line;
+      while ((line = in.readLine()) != null) {
+        if (line.startsWith("You are ")) {
+          prompt = "Enter a move for " + line.charAt(8) + ":";
+        } else if (line.equals(prompt)) {
+          ThreadLocalRandom random = ThreadLocalRandom.current();
+          String move = (random.nextInt(3) + 1) + " " + (random.nextInt(3) + 1) + "\n";
+          out.write(move.getBytes(StandardCharsets.UTF_8));
+          out.flush();
+        } else if (line.startsWith("Game is over!")) {
+          return;
+        }
+      }
+      throw new IOException("Connection closed before the game ended.");
+    }
+  }
+}
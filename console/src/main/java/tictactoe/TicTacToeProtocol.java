@@ -0,0 +1,287 @@
+package tictactoe;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The text protocol of {@link TicTacToeConsoleController}, parsed straight from bytes and
+ * answered straight into bytes. The input is whitespace-separated tokens: pairs of 1-based
+ * row and column numbers, or {@code q} to quit. The output is the same board drawings,
+ * prompts and messages the console controller prints, byte for byte, except that a bad
+ * token longer than {@link #MAX_TOKEN} bytes is echoed cut short.
+ *
+ * <p>One protocol object plays one game. It keeps only a few fields of parser state and a
+ * small token buffer, and writes every response into a buffer supplied by the caller, so
+ * parsing and answering a move allocates nothing.
+ */
+final class TicTacToeProtocol {
+
+  /**
+   * The longest bad token that is echoed back in full.
+   */
+  static final int MAX_TOKEN = 64;
+
+  private static final byte[] PROMPT = ascii("Enter a move for ");
+  private static final byte[] BAD_NUMBER = ascii("Not a valid number: ");
+  private static final byte[] BAD_MOVE = ascii("Not a valid move: ");
+  private static final byte[] QUIT = ascii("Game quit! Ending game state:\n");
+  private static final byte[] OVER = ascii("Game is over! ");
+  private static final byte[] TIE = ascii("Tie game.\n");
+  private static final byte[] X_WINS = ascii("X wins.\n");
+  private static final byte[] O_WINS = ascii("O wins.\n");
+
+  private final TicTacToe model;
+  private final BoardView view;
+  private final int maxResponse;
+
+  private final byte[] token;
+  private int tokenLength;
+  private int row;
+  private boolean haveRow;
+  private boolean finished;
+
+  /**
+   * Construct the protocol for one game.
+   *
+   * @param model the game to play
+   */
+  TicTacToeProtocol(TicTacToe model) {
+    if (model == null) {
+      throw new IllegalArgumentException("Model cannot be null.");
+    }
+    this.model = model;
+    this.view = model.getBoardView();
+    this.token = new byte[MAX_TOKEN];
+    // the longest response is an error, a board and a prompt
+    this.maxResponse = boardBytes(model) + MAX_TOKEN + 64;
+  }
+
+  private static byte[] ascii(String s) {
+    return s.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Returns the size in bytes of the drawing of a game's board, including its newline.
+   */
+  private static int boardBytes(TicTacToe model) {
+    int width = 4 * model.getColumns() - 1;
+    return model.getRows() * (2 * width + 2);
+  }
+
+  /**
+   * Return the room an output buffer must have before each call to {@link #consume}.
+   *
+   * @return the size in bytes of the longest single response
+   */
+  int maxResponseBytes() {
+    return maxResponse;
+  }
+
+  /**
+   * Return whether the game has ended, by a result or by the player quitting, so no more
+   * input is wanted.
+   *
+   * @return true if the game has ended
+   */
+  boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * Write the opening board and prompt.
+   *
+   * @param out the buffer to write into, with at least {@link #maxResponseBytes()} room
+   */
+  void start(ByteBuffer out) {
+    if (model.isGameOver()) {
+      writeResult(out);
+    } else {
+      writePrompt(out);
+    }
+  }
+
+  /**
+   * Parse input bytes and write the responses, stopping when the input is used up, the
+   * game ends, or the output buffer has less than {@link #maxResponseBytes()} room left.
+   * Unused input is left in the input buffer.
+   *
+   * @param in  the input, ready to be read
+   * @param out the buffer to write responses into
+   */
+  void consume(ByteBuffer in, ByteBuffer out) {
+    while (!finished && in.hasRemaining() && out.remaining() >= maxResponse) {
+      byte b = in.get();
+      if (isWhitespace(b)) {
+        if (tokenLength > 0) {
+          endToken(out);
+        }
+      } else if (tokenLength < MAX_TOKEN) {
+        token[tokenLength++] = b;
+      } else {
+        // too long to be a number; remember only that it was cut short
+        tokenLength = MAX_TOKEN + 1;
+      }
+    }
+  }
+
+  /**
+   * Handles the end of the input: a last token with no whitespace after it is still used.
+   *
+   * @param out the buffer to write responses into
+   */
+  void endOfInput(ByteBuffer out) {
+    if (!finished && tokenLength > 0) {
+      endToken(out);
+    }
+  }
+
+  /**
+   * Matches the delimiters of {@link java.util.Scanner} in the ASCII range.
+   */
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || (b >= 9 && b <= 13) || (b >= 28 && b <= 31);
+  }
+
+  /**
+   * Acts on the token just read.
+   */
+  private void endToken(ByteBuffer out) {
+    int length = Math.min(tokenLength, MAX_TOKEN);
+    boolean cutShort = tokenLength > MAX_TOKEN;
+    tokenLength = 0;
+
+    if (length == 1 && (token[0] == 'q' || token[0] == 'Q')) {
+      out.put(QUIT);
+      writeBoard(out);
+      finished = true;
+      return;
+    }
+
+    long value = cutShort ? Long.MAX_VALUE : parse(length);
+    if (value == Long.MAX_VALUE) {
+      out.put(BAD_NUMBER).put(token, 0, length).put((byte) '\n');
+      return;
+    }
+    if (!haveRow) {
+      row = (int) value;
+      haveRow = true;
+      return;
+    }
+    haveRow = false;
+    int col = (int) value;
+    if (model.tryMove(row - 1, col - 1) != MoveStatus.OK) {
+      out.put(BAD_MOVE);
+      writeInt(out, row);
+      out.put((byte) ',').put((byte) ' ');
+      writeInt(out, col);
+      out.put((byte) '\n');
+    }
+    if (model.isGameOver()) {
+      writeResult(out);
+    } else {
+      writePrompt(out);
+    }
+  }
+
+  /**
+   * Parses the token as {@link Integer#parseInt(String)} would.
+   *
+   * @return the value, or {@link Long#MAX_VALUE} if the token is not a valid int
+   */
+  private long parse(int length) {
+    int i = 0;
+    boolean negative = false;
+    if (token[0] == '-' || token[0] == '+') {
+      negative = token[0] == '-';
+      i = 1;
+    }
+    if (i == length) {
+      return Long.MAX_VALUE;
+    }
+    long value = 0;
+    for (; i < length; i++) {
+      int digit = token[i] - '0';
+      if (digit < 0 || digit > 9) {
+        return Long.MAX_VALUE;
+      }
+      value = 10 * value + digit;
+      if (value > Integer.MAX_VALUE + 1L) {
+        return Long.MAX_VALUE;
+      }
+    }
+    if (negative) {
+      return -value;
+    }
+    return value > Integer.MAX_VALUE ? Long.MAX_VALUE : value;
+  }
+
+  /**
+   * Writes the board followed by the prompt for the player to move.
+   */
+  private void writePrompt(ByteBuffer out) {
+    writeBoard(out);
+    out.put(PROMPT).put(mark(model.getTurn())).put((byte) ':').put((byte) '\n');
+  }
+
+  /**
+   * Writes the final board and the result.
+   */
+  private void writeResult(ByteBuffer out) {
+    writeBoard(out);
+    out.put(OVER);
+    if (model.getWinner() == null) {
+      out.put(TIE);
+    } else if (model.getWinner() == Player.X) {
+      out.put(X_WINS);
+    } else {
+      out.put(O_WINS);
+    }
+    finished = true;
+  }
+
+  /**
+   * Writes the board as {@link TicTacToeModel#toString()} draws it, and a newline.
+   */
+  private void writeBoard(ByteBuffer out) {
+    int rows = view.getRows();
+    int cols = view.getColumns();
+    for (int i = 0; i < rows; i++) {
+      if (i > 0) {
+        for (int j = 0; j < 4 * cols - 1; j++) {
+          out.put((byte) '-');
+        }
+        out.put((byte) '\n');
+      }
+      for (int j = 0; j < cols; j++) {
+        if (j > 0) {
+          out.put((byte) ' ').put((byte) '|');
+        }
+        Player p = view.getMarkAt(i * cols + j);
+        out.put((byte) ' ').put(p == null ? (byte) ' ' : mark(p));
+      }
+      out.put((byte) '\n');
+    }
+  }
+
+  private static byte mark(Player p) {
+    return p == Player.X ? (byte) 'X' : (byte) 'O';
+  }
+
+  /**
+   * Writes the decimal digits of an int without creating a string.
+   */
+  private static void writeInt(ByteBuffer out, int value) {
+    long v = value;
+    if (v < 0) {
+      out.put((byte) '-');
+      v = -v;
+    }
+    long divisor = 1;
+    while (divisor * 10 <= v) {
+      divisor *= 10;
+    }
+    for (; divisor > 0; divisor /= 10) {
+      out.put((byte) ('0' + (v / divisor) % 10));
+    }
+  }
+}
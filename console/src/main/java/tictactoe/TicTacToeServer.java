@@ -0,0 +1,262 @@
+package tictactoe;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A TCP front end for {@link TicTacToeConsoleController}. The server pairs connections as
+ * they arrive: the first of each pair plays X and the second plays O. Each pair gets one
+ * {@link TicTacToeModel} and one console controller, which reads each player's moves from
+ * that player's own socket, only on their turn, and sends its output to both players. So
+ * moves sent out of turn wait until the sender's turn, and neither player can move for the
+ * other.
+ *
+ * <p>Every game runs on its own thread from {@link #newThreadPerTaskExecutor()}. On Java 21
+ * and later those are virtual threads, so idle connected players cost no platform thread;
+ * on older runtimes they fall back to a cached pool of platform threads.
+ */
+public class TicTacToeServer implements Closeable {
+
+  /**
+   * How many connections may wait to be accepted, so bursts of players are not refused.
+   */
+  private static final int BACKLOG = 1024;
+
+  private final ServerSocket serverSocket;
+  private final ExecutorService executor;
+
+  /**
+   * Construct a server listening on the given port.
+   *
+   * @param port the port to listen on, or 0 for any free port
+   * @throws IOException if the port cannot be opened
+   */
+  public TicTacToeServer(int port) throws IOException {
+    serverSocket = new ServerSocket(port, BACKLOG);
+    executor = newThreadPerTaskExecutor();
+  }
+
+  /**
+   * Run the server on the port given as the first argument, 8080 by default.
+   *
+   * @param args command line arguments: the port
+   * @throws IOException if the port cannot be opened
+   */
+  public static void main(String[] args) throws IOException {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+    try (TicTacToeServer server = new TicTacToeServer(port)) {
+      System.out.println("Listening on port " + server.getPort());
+      server.serve();
+    }
+  }
+
+  /**
+   * Return an executor that starts a new thread for every task: a virtual thread when the
+   * runtime supports them, or a platform thread otherwise.
+   *
+   * @return a thread-per-task executor
+   */
+  static ExecutorService newThreadPerTaskExecutor() {
+    try {
+      // Executors.newVirtualThreadPerTaskExecutor() exists from Java 21
+      return (ExecutorService) Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool();
+    }
+  }
+
+  /**
+   * Return the port the server is listening on.
+   *
+   * @return the local port
+   */
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Accept connections and start a game for every two of them, until the server is closed.
+   */
+  public void serve() {
+    Connection waiting = null;
+    try {
+      while (!serverSocket.isClosed()) {
+        Connection connection = new Connection(serverSocket.accept());
+        if (waiting == null || !waiting.isAlive()) {
+          if (waiting != null) {
+            closeQuietly(waiting.socket);
+          }
+          waiting = connection;
+          send(connection.socket, "Waiting for an opponent...\n");
+        } else {
+          Connection x = waiting;
+          waiting = null;
+          executor.execute(() -> playGame(x, connection));
+        }
+      }
+    } catch (IOException e) {
+      // the server socket was closed
+    } finally {
+      if (waiting != null) {
+        closeQuietly(waiting.socket);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    executor.shutdown();
+  }
+
+  /**
+   * Plays one game between the two sockets, then closes them.
+   */
+  private void playGame(Connection x, Connection o) {
+    try {
+      Writer[] writers = {writer(x.socket), writer(o.socket)};
+      writers[0].write("You are X.\n");
+      writers[1].write("You are O.\n");
+      BroadcastWriter out = new BroadcastWriter(writers);
+      TicTacToeController controller = new TicTacToeConsoleController(
+          input(x.reader(), out), input(o.reader(), out), out);
+      controller.playGame(new TicTacToeModel());
+      out.flush();
+    } catch (IOException | IllegalStateException e) {
+      // a player disconnected, which ends the game for both
+    } finally {
+      closeQuietly(x.socket);
+      closeQuietly(o.socket);
+    }
+  }
+
+  /**
+   * Returns the input of one player, which sends pending output to both players before
+   * every read, so each player sees the prompt they answer.
+   */
+  private static Readable input(Reader reader, BroadcastWriter out) {
+    return cb -> {
+      out.flush();
+      return reader.read(cb);
+    };
+  }
+
+  private static Writer writer(Socket socket) throws IOException {
+    return new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(),
+        StandardCharsets.UTF_8));
+  }
+
+  private static void send(Socket socket, String message) {
+    try {
+      socket.getOutputStream().write(message.getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      closeQuietly(socket);
+    }
+  }
+
+  private static void closeQuietly(Socket socket) {
+    if (socket != null) {
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // nothing more to do
+      }
+    }
+  }
+
+  /**
+   * An accepted socket, with its input buffered from the start, so that checking whether
+   * the peer is still there does not lose anything they sent.
+   */
+  private static final class Connection {
+    private final Socket socket;
+    private final BufferedInputStream in;
+
+    private Connection(Socket socket) throws IOException {
+      this.socket = socket;
+      this.in = new BufferedInputStream(socket.getInputStream());
+    }
+
+    /**
+     * Returns whether the peer is still connected, waiting at most a millisecond to find
+     * out. A closed connection reads as the end of the stream; a live one either has input
+     * waiting, which is kept, or times out.
+     */
+    private boolean isAlive() {
+      try {
+        socket.setSoTimeout(1);
+        in.mark(1);
+        try {
+          if (in.read() < 0) {
+            return false;
+          }
+          in.reset();
+        } catch (SocketTimeoutException e) {
+          // nothing sent yet, but still connected
+        }
+        socket.setSoTimeout(0);
+        return true;
+      } catch (IOException e) {
+        return false;
+      }
+    }
+
+    private Reader reader() {
+      return new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * Output of a game, written to both players.
+   */
+  private static final class BroadcastWriter implements Appendable {
+    private final Writer[] writers;
+
+    private BroadcastWriter(Writer[] writers) {
+      this.writers = writers;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) throws IOException {
+      for (Writer w : writers) {
+        w.append(csq);
+      }
+      return this;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) throws IOException {
+      for (Writer w : writers) {
+        w.append(csq, start, end);
+      }
+      return this;
+    }
+
+    @Override
+    public Appendable append(char c) throws IOException {
+      for (Writer w : writers) {
+        w.append(c);
+      }
+      return this;
+    }
+
+    private void flush() throws IOException {
+      for (Writer w : writers) {
+        w.flush();
+      }
+    }
+  }
+}
@@ -0,0 +1,100 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import tictactoe.NioTicTacToeController;
+import tictactoe.TicTacToe;
+import tictactoe.TicTacToeConsoleController;
+import tictactoe.TicTacToeController;
+import tictactoe.TicTacToeModel;
+
+/**
+ * Test cases for the byte channel controller, checking that it prints exactly what the
+ * console controller prints for the same input.
+ */
+public class NioTicTacToeControllerTest {
+
+  /**
+   * Plays the input through the byte channel controller and returns its output.
+   */
+  private static String playNio(String input, TicTacToe m) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TicTacToeController c = new NioTicTacToeController(
+        Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))),
+        Channels.newChannel(out));
+    c.playGame(m);
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Plays the input through the console controller and returns its output.
+   */
+  private static String playConsole(String input, TicTacToe m) {
+    StringBuilder gameLog = new StringBuilder();
+    new TicTacToeConsoleController(new StringReader(input), gameLog).playGame(m);
+    return gameLog.toString();
+  }
+
+  /**
+   * Checks that both controllers print the same for the input on a 3 * 3 board.
+   */
+  private static void assertSameOutput(String input) {
+    assertEquals(playConsole(input, new TicTacToeModel()),
+        playNio(input, new TicTacToeModel()));
+  }
+
+  /**
+   * Test a single valid move and quitting.
+   */
+  @Test
+  public void testSingleValidMove() {
+    assertSameOutput("2 2 q");
+  }
+
+  /**
+   * Test bogus tokens, including a number too large for an int.
+   */
+  @Test
+  public void testBogusInput() {
+    assertSameOutput("!#$ 2 abc 99999999999 2\t+1 -1\n Q");
+  }
+
+  /**
+   * Test invalid moves: occupied, off the board and negative.
+   */
+  @Test
+  public void testInvalidMoves() {
+    assertSameOutput("2 2 2 2 0 1 4 4 -1 -1 q");
+  }
+
+  /**
+   * Test full games ending in a tie and in a win.
+   */
+  @Test
+  public void testGamesToCompletion() {
+    assertSameOutput("2 2 1 1 3 3 1 2 1 3 2 3 2 1 3 1 3 2");
+    assertSameOutput("1 1 2 1 1 2 2 2 1 3 3 3");
+  }
+
+  /**
+   * Test a game on a larger board.
+   */
+  @Test
+  public void testLargerBoard() {
+    String input = "1 1 2 1 1 2 2 2 1 3 2 3 1 4";
+    assertEquals(playConsole(input, new TicTacToeModel(4, 5, 4)),
+        playNio(input, new TicTacToeModel(4, 5, 4)));
+  }
+
+  /**
+   * Test that running out of input before the game ends is an error.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testInputEndsEarly() {
+    playNio("2 2 1", new TicTacToeModel());
+  }
+}
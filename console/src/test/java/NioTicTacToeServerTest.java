@@ -0,0 +1,64 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tictactoe.NioTicTacToeServer;
+
+/**
+ * Test cases for the non-blocking TCP server, played over real sockets on the loopback
+ * interface.
+ */
+public class NioTicTacToeServerTest {
+
+  private NioTicTacToeServer server;
+  private Thread serving;
+
+  @Before
+  public void setUp() throws IOException {
+    server = new NioTicTacToeServer(0, 3, 3, 3);
+    serving = new Thread(() -> {
+      try {
+        server.serve();
+      } catch (IOException e) {
+        // the server was closed
+      }
+    });
+    serving.start();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.close();
+    serving.join(5000);
+  }
+
+  /**
+   * Test that players who reset their connection before they are greeted do not stop the
+   * server from taking the next player.
+   */
+  @Test(timeout = 10000)
+  public void testResetConnections() throws IOException {
+    for (int i = 0; i < 20; i++) {
+      Socket gone = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+      // close with a reset rather than a normal end of stream
+      gone.setSoLinger(true, 0);
+      gone.close();
+    }
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+      BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+          StandardCharsets.UTF_8));
+      String line = in.readLine();
+      while (line != null && !line.startsWith("Enter a move")) {
+        line = in.readLine();
+      }
+      assertEquals("Enter a move for X:", line);
+    }
+  }
+}
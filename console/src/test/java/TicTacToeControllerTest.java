@@ -1,11 +1,20 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
 import org.junit.Test;
 import tictactoe.FailingAppendable;
+import tictactoe.MovePolicy;
+import tictactoe.Player;
+import tictactoe.SolverMovePolicy;
 import tictactoe.TicTacToe;
 import tictactoe.TicTacToeConsoleController;
 import tictactoe.TicTacToeController;
@@ -491,5 +500,119 @@ public class TicTacToeControllerTest {
     }
   }
 
-}
+  /**
+   * Test for a game against a computer that plays the first empty cell.
+   */
+  @Test
+  public void testComputerOpponent() {
+    TicTacToe m = new TicTacToeModel();
+    MovePolicy firstEmpty = game -> {
+      int cell = 0;
+      while (game.getMarkAt(cell / 3, cell % 3) != null) {
+        cell++;
+      }
+      return cell;
+    };
+    StringBuilder gameLog = new StringBuilder();
+    TicTacToeController c = new TicTacToeConsoleController(new StringReader("1 1 2 2 3 3"),
+        gameLog, Player.O, firstEmpty);
+    c.playGame(m);
+    String[] lines = gameLog.toString().split("\n");
+    assertEquals("Enter a move for X:", lines[5]);
+    assertEquals("O plays 1, 2", lines[6]);
+    assertEquals(" X | O |  ", lines[7]);
+    assertEquals("Enter a move for X:", lines[12]);
+    assertEquals("O plays 1, 3", lines[13]);
+    assertEquals("Game is over! X wins.", lines[lines.length - 1]);
+    assertEquals(Player.X, m.getWinner());
+  }
+
+  /**
+   * Test that the computer moves first when it plays X.
+   */
+  @Test
+  public void testComputerMovesFirst() {
+    TicTacToe m = new TicTacToeModel();
+    StringBuilder gameLog = new StringBuilder();
+    TicTacToeController c = new TicTacToeConsoleController(new StringReader("q"),
+        gameLog, Player.X, game -> 4);
+    c.playGame(m);
+    assertEquals("X plays 2, 2", gameLog.toString().split("\n")[0]);
+    assertEquals(Player.X, m.getMarkAt(1, 1));
+  }
+
+  /**
+   * Test that a computer move on a cell already taken is reported rather than made.
+   */
+  @Test
+  public void testComputerInvalidMove() {
+    TicTacToe m = new TicTacToeModel();
+    StringBuilder gameLog = new StringBuilder();
+    TicTacToeController c = new TicTacToeConsoleController(new StringReader("2 2"),
+        gameLog, Player.O, game -> 4);
+    try {
+      c.playGame(m);
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertEquals("Computer player chose an invalid move.", e.getMessage());
+    }
+    String[] lines = gameLog.toString().split("\n");
+    assertEquals("Not a valid move: 2, 2", lines[lines.length - 1]);
+    assertEquals(Player.O, m.getTurn());
+  }
+
+  /**
+   * Test for a game where the computer plays both sides, which needs no input.
+   */
+  @Test
+  public void testComputerBothSides() {
+    TicTacToe m = new TicTacToeModel();
+    Map<Player, MovePolicy> computers = new EnumMap<>(Player.class);
+    computers.put(Player.X, new SolverMovePolicy());
+    computers.put(Player.O, new SolverMovePolicy());
+    StringBuilder gameLog = new StringBuilder();
+    new TicTacToeConsoleController(new StringReader(""), gameLog, computers).playGame(m);
+    String[] lines = gameLog.toString().split("\n");
+    assertEquals(9 + 6, lines.length);
+    assertEquals("Game is over! Tie game.", lines[lines.length - 1]);
+  }
 
+  /**
+   * Test that with an input for each side, each is only read on its own side's turn, so
+   * moves typed ahead by X are not taken as O's.
+   */
+  @Test
+  public void testInputPerSide() {
+    TicTacToe m = new TicTacToeModel();
+    StringBuilder gameLog = new StringBuilder();
+    new TicTacToeConsoleController(new StringReader("1 1\n2 1\n1 2\n2 2\n1 3\n"),
+        new StringReader("3 3\n3 2\n3 1\n"), gameLog).playGame(m);
+    assertEquals(Player.O, m.getWinner());
+    assertEquals(Player.X, m.getMarkAt(1, 0));
+    assertEquals(Player.O, m.getMarkAt(2, 2));
+    String[] lines = gameLog.toString().split("\n");
+    assertEquals("Game is over! O wins.", lines[lines.length - 1]);
+  }
+
+  /**
+   * Test that a game printed to a writer and to a print stream reads the same as one
+   * printed to a string builder.
+   */
+  @Test
+  public void testWriterAndPrintStreamOutput() {
+    String input = "2 2 1 1 3 3 1 3 q";
+    StringBuilder gameLog = new StringBuilder();
+    new TicTacToeConsoleController(new StringReader(input), gameLog)
+        .playGame(new TicTacToeModel());
+    StringWriter writer = new StringWriter();
+    new TicTacToeConsoleController(new StringReader(input), writer)
+        .playGame(new TicTacToeModel());
+    assertEquals(gameLog.toString(), writer.toString());
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    PrintStream stream = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+    new TicTacToeConsoleController(new StringReader(input), stream)
+        .playGame(new TicTacToeModel());
+    assertEquals(gameLog.toString(), bytes.toString(StandardCharsets.UTF_8));
+  }
+
+}
@@ -0,0 +1,114 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tictactoe.TicTacToeServer;
+
+/**
+ * Test cases for the TCP server, played over real sockets on the loopback interface.
+ */
+public class TicTacToeServerTest {
+
+  private TicTacToeServer server;
+  private Thread serving;
+
+  @Before
+  public void setUp() throws IOException {
+    server = new TicTacToeServer(0);
+    serving = new Thread(server::serve);
+    serving.start();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.close();
+    serving.join(5000);
+  }
+
+  /**
+   * Test that moves X sends before its turn are only read on X's own turns, so X cannot
+   * move for O.
+   */
+  @Test(timeout = 10000)
+  public void testMovesSentOutOfTurn() throws IOException {
+    try (Client x = new Client(); Client o = new Client()) {
+      x.readUntil("You are X.");
+      // every move X will make, sent at once before O has moved
+      x.send("1 1\n2 1\n1 2\n2 2\n1 3\n");
+      o.readUntil("You are O.");
+      for (String move : new String[] {"3 3", "3 2", "3 1"}) {
+        o.readUntil("Enter a move for O:");
+        o.send(move + "\n");
+      }
+      assertEquals("Game is over! O wins.", o.readUntil("Game is over!"));
+      assertEquals("Game is over! O wins.", x.readUntil("Game is over!"));
+    }
+  }
+
+  /**
+   * Test that a player who left while waiting is not paired, and the next two players are.
+   */
+  @Test(timeout = 10000)
+  public void testWaitingPlayerLeft() throws Exception {
+    Client gone = new Client();
+    gone.readUntil("Waiting for an opponent...");
+    gone.close();
+    try (Client x = new Client()) {
+      x.readUntil("Waiting for an opponent...");
+      try (Client o = new Client()) {
+        x.readUntil("You are X.");
+        o.readUntil("You are O.");
+        x.readUntil("Enter a move for X:");
+        x.send("q\n");
+        assertTrue(o.readUntil("Game quit!").startsWith("Game quit!"));
+      }
+    }
+  }
+
+  /**
+   * A player connected to the server.
+   */
+  private final class Client implements AutoCloseable {
+    private final Socket socket;
+    private final BufferedReader in;
+    private final OutputStream out;
+
+    private Client() throws IOException {
+      socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+      in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+          StandardCharsets.UTF_8));
+      out = socket.getOutputStream();
+    }
+
+    /**
+     * Reads lines until one starts with the prefix, and returns it.
+     */
+    private String readUntil(String prefix) throws IOException {
+      for (String line = in.readLine(); line != null; line = in.readLine()) {
+        if (line.startsWith(prefix)) {
+          return line;
+        }
+      }
+      throw new IOException("Connection closed before " + prefix);
+    }
+
+    private void send(String text) throws IOException {
+      out.write(text.getBytes(StandardCharsets.UTF_8));
+      out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+      socket.close();
+    }
+  }
+}
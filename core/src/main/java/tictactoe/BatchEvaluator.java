@@ -0,0 +1,285 @@
+package tictactoe;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scores many positions in one call: for each one, who has already won, who wins with
+ * perfect play from there, and a best move. The positions are given packed, as two parallel
+ * arrays of masks, one bit per row-major cell: {@code xs[i]} holds the cells marked by X in
+ * position i and {@code os[i]} those marked by O. So a batch pulled from a log needs no
+ * model per position.
+ *
+ * <p>The results use the same codes throughout: {@link #NONE} for no winner or a draw,
+ * {@link #X_WINS}, {@link #O_WINS}, and {@link #ILLEGAL} for a position that cannot arise in
+ * a game: marks on the same cell or off the board, the wrong number of marks for either
+ * player, or a win that play would have stopped short of. Those are the positions that
+ * {@link TicTacToeModel} refuses to be rebuilt from: in particular, a player may have several
+ * lines only if one cell, their last move, lies on all of them.
+ *
+ * <p>The batch is split across the threads of a {@link ForkJoinPool}. Each task checks its
+ * positions for wins a block at a time, one line for the whole block before the next line,
+ * so the inner loop is plain arithmetic over arrays that the JIT can vectorize. Positions
+ * still in play are then solved with a {@link TicTacToeSolver} that no other task is using
+ * at the time; the solvers are kept, tables and all, from batch to batch. Boards of up to
+ * {@link TicTacToeSolver#MAX_CELLS} cells are supported, but only small boards can be
+ * solved quickly.
+ */
+public final class BatchEvaluator {
+
+  /**
+   * No winner, or a draw with perfect play.
+   */
+  public static final byte NONE = 0;
+
+  /**
+   * X has won, or wins with perfect play.
+   */
+  public static final byte X_WINS = 1;
+
+  /**
+   * O has won, or wins with perfect play.
+   */
+  public static final byte O_WINS = 2;
+
+  /**
+   * The position cannot arise in a game.
+   */
+  public static final byte ILLEGAL = -1;
+
+  /**
+   * The fewest positions worth handing to a task of their own.
+   */
+  private static final int MIN_BOARDS_PER_TASK = 1024;
+
+  /**
+   * The number of positions checked for wins together.
+   */
+  private static final int BLOCK = 256;
+
+  private final int rows;
+  private final int cols;
+  private final int winLength;
+  private final int boardMask;
+  private final int[] lines;
+  // workers not in use, each with its solver and its table still filled
+  private final ConcurrentLinkedDeque<Worker> idle = new ConcurrentLinkedDeque<>();
+
+  /**
+   * Construct an evaluator for positions on a board of the given size and win length.
+   *
+   * @param rows      the number of rows on the board
+   * @param cols      the number of columns on the board
+   * @param winLength the number of marks in a row needed to win
+   * @throws IllegalArgumentException if the board is invalid or has more than
+   *                                  {@link TicTacToeSolver#MAX_CELLS} cells
+   */
+  public BatchEvaluator(int rows, int cols, int winLength) {
+    // fail on an invalid board the same way a model does
+    new TicTacToeModel(rows, cols, winLength);
+    if ((long) rows * cols > TicTacToeSolver.MAX_CELLS) {
+      throw new IllegalArgumentException("Board too large to evaluate: at most "
+          + TicTacToeSolver.MAX_CELLS + " cells");
+    }
+    this.rows = rows;
+    this.cols = cols;
+    this.winLength = winLength;
+    this.boardMask = (int) (-1L >>> (64 - rows * cols));
+    this.lines = TicTacToeSolver.windows(rows, cols, winLength);
+  }
+
+  /**
+   * Score a batch of positions on the common fork-join pool.
+   *
+   * @param xs        the cells marked by X in each position
+   * @param os        the cells marked by O in each position
+   * @param winners   filled with the player who has already won each position
+   * @param outcomes  filled with the result of each position with perfect play
+   * @param bestMoves filled with a best move from each position, as a row-major cell
+   *                  index, or -1 if the game is over or the position is illegal
+   * @throws IllegalArgumentException if an array is null, or the arrays of masks differ in
+   *                                  length, or a result array is shorter than them
+   */
+  public void evaluate(int[] xs, int[] os, byte[] winners, byte[] outcomes, byte[] bestMoves) {
+    evaluate(xs, os, winners, outcomes, bestMoves, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Score a batch of positions on the given fork-join pool.
+   *
+   * @param xs        the cells marked by X in each position
+   * @param os        the cells marked by O in each position
+   * @param winners   filled with the player who has already won each position
+   * @param outcomes  filled with the result of each position with perfect play
+   * @param bestMoves filled with a best move from each position, as a row-major cell
+   *                  index, or -1 if the game is over or the position is illegal
+   * @param pool      the pool whose threads score the positions
+   * @throws IllegalArgumentException if an array or the pool is null, or the arrays of
+   *                                  masks differ in length, or a result array is shorter
+   *                                  than them
+   */
+  public void evaluate(int[] xs, int[] os, byte[] winners, byte[] outcomes, byte[] bestMoves,
+      ForkJoinPool pool) {
+    if (xs == null || os == null || winners == null || outcomes == null
+        || bestMoves == null) {
+      throw new IllegalArgumentException("Arrays cannot be null.");
+    }
+    if (pool == null) {
+      throw new IllegalArgumentException("Pool cannot be null.");
+    }
+    int n = xs.length;
+    if (os.length != n) {
+      throw new IllegalArgumentException("Masks of X and O differ in length.");
+    }
+    if (winners.length < n || outcomes.length < n || bestMoves.length < n) {
+      throw new IllegalArgumentException("Result arrays too short: need " + n);
+    }
+    // several tasks per thread, so threads that finish early can steal work
+    int perTask = Math.max(MIN_BOARDS_PER_TASK, n / (8 * pool.getParallelism()));
+    pool.invoke(new Boards(new Batch(xs, os, winners, outcomes, bestMoves), 0, n, perTask));
+  }
+
+  /**
+   * The arrays of one call.
+   */
+  private static final class Batch {
+    private final int[] xs;
+    private final int[] os;
+    private final byte[] winners;
+    private final byte[] outcomes;
+    private final byte[] bestMoves;
+
+    private Batch(int[] xs, int[] os, byte[] winners, byte[] outcomes, byte[] bestMoves) {
+      this.xs = xs;
+      this.os = os;
+      this.winners = winners;
+      this.outcomes = outcomes;
+      this.bestMoves = bestMoves;
+    }
+  }
+
+  /**
+   * Scores a range of positions, splitting it in two while it is large.
+   */
+  private final class Boards extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Batch batch;
+    private final int from;
+    private final int to;
+    private final int perTask;
+
+    private Boards(Batch batch, int from, int to, int perTask) {
+      this.batch = batch;
+      this.from = from;
+      this.to = to;
+      this.perTask = perTask;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= perTask) {
+        Worker worker = idle.pollFirst();
+        if (worker == null) {
+          worker = new Worker();
+        }
+        try {
+          for (int start = from; start < to; start += BLOCK) {
+            worker.score(batch, start, Math.min(to, start + BLOCK));
+          }
+        } finally {
+          idle.offerFirst(worker);
+        }
+        return;
+      }
+      int middle = from + (to - from) / 2;
+      invokeAll(new Boards(batch, from, middle, perTask),
+          new Boards(batch, middle, to, perTask));
+    }
+  }
+
+  /**
+   * The solver and scratch space of one task at a time.
+   */
+  private final class Worker {
+    private final TicTacToeSolver solver = new TicTacToeSolver(rows, cols, winLength);
+    // for each position in the block, 1 if the player has a line, else 0
+    private final int[] xLines = new int[BLOCK];
+    private final int[] oLines = new int[BLOCK];
+    // for each position in the block, the cells on every line the player has
+    private final int[] xShared = new int[BLOCK];
+    private final int[] oShared = new int[BLOCK];
+
+    /**
+     * Scores the positions from {@code from} to {@code to}, at most one block.
+     */
+    private void score(Batch batch, int from, int to) {
+      int n = to - from;
+      int[] xs = batch.xs;
+      int[] os = batch.os;
+      for (int i = 0; i < n; i++) {
+        xLines[i] = 0;
+        oLines[i] = 0;
+        xShared[i] = -1;
+        oShared[i] = -1;
+      }
+      for (int line : lines) {
+        for (int i = 0; i < n; i++) {
+          int x = complete(xs[from + i], line);
+          int o = complete(os[from + i], line);
+          xLines[i] |= x;
+          oLines[i] |= o;
+          // keeps only the cells of the line if it is complete, else keeps everything
+          xShared[i] &= line | (x - 1);
+          oShared[i] &= line | (o - 1);
+        }
+      }
+      for (int i = 0; i < n; i++) {
+        boolean xWon = xLines[i] != 0;
+        boolean oWon = oLines[i] != 0;
+        // a win ends the game, so the winning move lies on every line of the winner
+        boolean disjoint = xWon && xShared[i] == 0 || oWon && oShared[i] == 0;
+        scoreOne(batch, from + i, xWon, oWon, disjoint);
+      }
+    }
+
+    /**
+     * Scores one position, given which players have a line on it, and whether a player has
+     * lines with no cell in common.
+     */
+    private void scoreOne(Batch batch, int i, boolean xWon, boolean oWon, boolean disjoint) {
+      int x = batch.xs[i];
+      int o = batch.os[i];
+      int extra = Integer.bitCount(x) - Integer.bitCount(o);
+      byte winner = xWon ? X_WINS : oWon ? O_WINS : NONE;
+      // X moves first, so X has as many marks as O or one more, and a win ends the game
+      if ((x & o) != 0 || ((x | o) & ~boardMask) != 0 || extra < 0 || extra > 1
+          || (xWon && (oWon || extra == 0)) || (oWon && extra == 1) || disjoint) {
+        winner = ILLEGAL;
+      }
+      batch.winners[i] = winner;
+      batch.outcomes[i] = winner;
+      batch.bestMoves[i] = -1;
+      if (winner != NONE || (x | o) == boardMask) {
+        return;
+      }
+      int me = extra == 0 ? x : o;
+      int opp = extra == 0 ? o : x;
+      int solved = solver.solve(me, opp);
+      int value = solved >> 8;
+      byte mover = extra == 0 ? X_WINS : O_WINS;
+      byte other = extra == 0 ? O_WINS : X_WINS;
+      batch.outcomes[i] = value > 0 ? mover : value < 0 ? other : NONE;
+      batch.bestMoves[i] = (byte) solved;
+    }
+  }
+
+  /**
+   * Returns 1 if the marks fill the line, else 0, without a branch.
+   */
+  private static int complete(int marks, int line) {
+    int missing = (marks & line) ^ line;
+    return ((missing | -missing) >>> 31) ^ 1;
+  }
+}
@@ -0,0 +1,336 @@
+package tictactoe;
+
+import java.util.Arrays;
+
+/**
+ * This class represents the game logic for a Tic Tac Toe game, keeping the board
+ * as two 9-bit masks, one per player, instead of a grid of {@link Player} objects.
+ * Bit {@code 3 * r + c} of a mask is set when that player has marked row r, column c.
+ * A win is detected by testing the mover's mask against the eight precomputed
+ * winning line masks, so no part of the board is rescanned after a move.
+ * It offers all the operations mandated by the TicTacToe interface.
+ */
+public class BitboardTicTacToeModel implements TicTacToe {
+
+  /**
+   * The eight winning lines: three rows, three columns and two diagonals.
+   */
+  private static final int[] LINES = {
+      0b000_000_111, 0b000_111_000, 0b111_000_000,
+      0b001_001_001, 0b010_010_010, 0b100_100_100,
+      0b100_010_001, 0b001_010_100
+  };
+
+  /**
+   * Mask with all nine cells set, i.e. a full board.
+   */
+  private static final int FULL = 0b111_111_111;
+
+  private int xMask;
+  private int oMask;
+  private Player currentPlayer;
+  private boolean gameOver;
+  private Player winner;
+  private final BoardView boardView;
+  private final long[] zobristKeys;
+  private long zobristHash;
+  // history[0 .. numMoves) are the moves made, history[numMoves .. historyLength) can be redone
+  private final int[] history;
+  private int numMoves;
+  private int historyLength;
+
+  /**
+   * Construct a BitboardTicTacToeModel object that takes no arguments.
+   * The object starts with two empty masks and an empty move history, sets the
+   * current player as X, game over status as false and winner as null.
+   */
+  public BitboardTicTacToeModel() {
+    xMask = 0;
+    oMask = 0;
+    currentPlayer = Player.X;
+    gameOver = false;
+    winner = null;
+    boardView = new LiveBoardView();
+    zobristKeys = Zobrist.keys(9);
+    zobristHash = 0;
+    history = new int[9];
+    numMoves = 0;
+    historyLength = 0;
+  }
+
+
+  /**
+   * Returns whether the given mask contains any complete winning line.
+   *
+   * @param mask the mask of one player
+   * @return true if the mask covers a row, column or diagonal
+   */
+  private static boolean hasLine(int mask) {
+    for (int line : LINES) {
+      if ((mask & line) == line) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+
+  @Override
+  public void move(int r, int c) {
+    // the game is over
+    if (gameOver) {
+      throw new IllegalStateException("The game is over.");
+    }
+
+    // the input r or c is invalid
+    if (r < 0 || r > 2 || c < 0 || c > 2) {
+      throw new IllegalArgumentException("Invalid position: r and c must be 0, 1, 2");
+    }
+
+    int bit = 1 << (3 * r + c);
+
+    // the position is occupied
+    if (((xMask | oMask) & bit) != 0) {
+      throw new IllegalArgumentException("Invalid position: position is already occupied");
+    }
+
+    play(3 * r + c);
+  }
+
+  @Override
+  public MoveStatus tryMove(int r, int c) {
+    if (gameOver) {
+      return MoveStatus.GAME_OVER;
+    }
+    if (r < 0 || r > 2 || c < 0 || c > 2) {
+      return MoveStatus.OUT_OF_BOUNDS;
+    }
+    if (((xMask | oMask) & (1 << (3 * r + c))) != 0) {
+      return MoveStatus.OCCUPIED;
+    }
+    play(3 * r + c);
+    return MoveStatus.OK;
+  }
+
+  @Override
+  public long getLegalMoveMask() {
+    return gameOver ? 0 : ~(xMask | oMask) & FULL;
+  }
+
+  @Override
+  public int getLegalMoves(int[] moves) {
+    int free = gameOver ? 0 : ~(xMask | oMask) & FULL;
+    if (moves.length < Integer.bitCount(free)) {
+      throw new IllegalArgumentException("Move buffer too short: " + moves.length);
+    }
+    int count = 0;
+    for (; free != 0; free &= free - 1) {
+      moves[count++] = Integer.numberOfTrailingZeros(free);
+    }
+    return count;
+  }
+
+  @Override
+  public int getLegalMoves(long[] mask) {
+    if (mask.length < 1) {
+      throw new IllegalArgumentException("Move mask too short: " + mask.length + " words");
+    }
+    Arrays.fill(mask, 0);
+    mask[0] = getLegalMoveMask();
+    return Long.bitCount(mask[0]);
+  }
+
+  /**
+   * Makes a new move at the given empty cell, dropping any moves that could be redone.
+   *
+   * @param cell the row-major index of the cell
+   */
+  private void play(int cell) {
+    history[numMoves] = cell;
+    historyLength = numMoves + 1;
+    place(cell);
+  }
+
+  /**
+   * Marks the given empty cell for the current player, and ends the turn.
+   *
+   * @param cell the cell index, {@code 3 * r + c}
+   */
+  private void place(int cell) {
+    int bit = 1 << cell;
+    zobristHash ^= zobristKeys[2 * cell + currentPlayer.ordinal()] ^ Zobrist.SIDE_TO_MOVE;
+    numMoves++;
+
+    int mask;
+    if (currentPlayer == Player.X) {
+      xMask |= bit;
+      mask = xMask;
+      currentPlayer = Player.O;
+    } else {
+      oMask |= bit;
+      mask = oMask;
+      currentPlayer = Player.X;
+    }
+
+    // only the player who just moved can have completed a line
+    if (hasLine(mask)) {
+      winner = currentPlayer == Player.X ? Player.O : Player.X;
+      gameOver = true;
+    } else if ((xMask | oMask) == FULL) {
+      gameOver = true;
+    }
+  }
+
+  @Override
+  public void undo() {
+    if (numMoves == 0) {
+      throw new IllegalStateException("There is no move to undo.");
+    }
+    int cell = history[--numMoves];
+    int bit = 1 << cell;
+    Player player = (xMask & bit) != 0 ? Player.X : Player.O;
+    xMask &= ~bit;
+    oMask &= ~bit;
+    zobristHash ^= zobristKeys[2 * cell + player.ordinal()] ^ Zobrist.SIDE_TO_MOVE;
+    // no move can follow the end of the game, so the game was not over before this move
+    currentPlayer = player;
+    gameOver = false;
+    winner = null;
+  }
+
+  @Override
+  public void redo() {
+    if (numMoves == historyLength) {
+      throw new IllegalStateException("There is no move to redo.");
+    }
+    place(history[numMoves]);
+  }
+
+
+  @Override
+  public Player getTurn() {
+    return currentPlayer;
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return gameOver;
+  }
+
+  @Override
+  public Player getWinner() {
+    return winner;
+  }
+
+  @Override
+  public Player[][] getBoard() {
+    Player[][] copyBoard = new Player[3][3];
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        copyBoard[i][j] = markAt(3 * i + j);
+      }
+    }
+    return copyBoard;
+  }
+
+  @Override
+  public long getZobristHash() {
+    return zobristHash;
+  }
+
+  @Override
+  public BoardView getBoardView() {
+    return boardView;
+  }
+
+  @Override
+  public Player getMarkAt(int r, int c) {
+    if (r < 0 || r > 2 || c < 0 || c > 2) {
+      throw new IllegalArgumentException("Invalid position: r and c must be 0, 1, 2");
+    }
+
+    return markAt(3 * r + c);
+  }
+
+  @Override
+  public int getRows() {
+    return 3;
+  }
+
+  @Override
+  public int getColumns() {
+    return 3;
+  }
+
+  @Override
+  public int getWinLength() {
+    return 3;
+  }
+
+  /**
+   * Returns the mark at the given cell index without bounds checking.
+   *
+   * @param index the cell index, {@code 3 * r + c}
+   * @return the player at that cell, or null if it's empty
+   */
+  private Player markAt(int index) {
+    int bit = 1 << index;
+    if ((xMask & bit) != 0) {
+      return Player.X;
+    }
+    if ((oMask & bit) != 0) {
+      return Player.O;
+    }
+    return null;
+  }
+
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(58);
+    for (int i = 0; i < 3; i++) {
+      if (i > 0) {
+        sb.append("\n-----------\n");
+      }
+      for (int j = 0; j < 3; j++) {
+        if (j > 0) {
+          sb.append(" |");
+        }
+        Player p = markAt(3 * i + j);
+        sb.append(' ').append(p == null ? " " : p.toString());
+      }
+    }
+    return sb.toString();
+  }
+
+
+  /**
+   * The read-only view of this game's board, reading straight from the live masks.
+   */
+  private class LiveBoardView implements BoardView {
+
+    @Override
+    public int getRows() {
+      return 3;
+    }
+
+    @Override
+    public int getColumns() {
+      return 3;
+    }
+
+    @Override
+    public Player getMarkAt(int r, int c) {
+      return BitboardTicTacToeModel.this.getMarkAt(r, c);
+    }
+
+    @Override
+    public Player getMarkAt(int index) {
+      if (index < 0 || index > 8) {
+        throw new IllegalArgumentException("Invalid cell index: must be 0 to 8");
+      }
+      return markAt(index);
+    }
+  }
+
+}
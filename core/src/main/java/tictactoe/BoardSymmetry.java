@@ -0,0 +1,240 @@
+package tictactoe;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The rotations and reflections of a board, used to map a position to a canonical form that
+ * is shared by every position equivalent to it under those symmetries. A square board has
+ * eight symmetries (four rotations, each optionally mirrored); any other board has four
+ * (the identity, the half turn and the two mirrors).
+ *
+ * <p>Positions are given as bit masks, one per player, with bit {@code r * cols + c} set for
+ * a mark at row r and column c. The canonical form of a position is the one, among all its
+ * transformed forms, with the smallest {@link #key(int, int) key}. Caches built on this class
+ * store one entry per equivalence class, about one eighth of the positions on a square board,
+ * and use {@link #toCanonical(int, int)} and {@link #fromCanonical(int, int)} to translate
+ * moves between a position and its canonical form.
+ */
+public final class BoardSymmetry {
+
+  private static final ConcurrentMap<Long, BoardSymmetry> SYMMETRIES = new ConcurrentHashMap<>();
+
+  /**
+   * The symmetries of the square that also map a board that is not square onto itself.
+   */
+  private static final int[] RECTANGLE_SYMMETRIES = {0, 2, 4, 5};
+
+  private final int rows;
+  private final int cols;
+  // perms[t][cell] is the cell that transform t moves the given cell to
+  private final int[][] perms;
+  private final int[][] inverses;
+  // chunks[t][i][b] is the image under t of byte b at byte position i of a mask
+  private final int[][][] chunks;
+
+  /**
+   * Construct the symmetries of a board of the given size.
+   *
+   * @param rows the number of rows on the board
+   * @param cols the number of columns on the board
+   * @throws IllegalArgumentException if the board has more than 32 cells
+   */
+  BoardSymmetry(int rows, int cols) {
+    if (rows * cols > 32) {
+      throw new IllegalArgumentException("Board too large: at most 32 cells");
+    }
+    this.rows = rows;
+    this.cols = cols;
+    int count = rows == cols ? 8 : 4;
+    int cells = rows * cols;
+    perms = new int[count][cells];
+    inverses = new int[count][cells];
+    for (int t = 0; t < count; t++) {
+      for (int r = 0; r < rows; r++) {
+        for (int c = 0; c < cols; c++) {
+          int image = image(rows == cols ? t : RECTANGLE_SYMMETRIES[t], r, c);
+          perms[t][r * cols + c] = image;
+          inverses[t][image] = r * cols + c;
+        }
+      }
+    }
+    int numChunks = (cells + 7) / 8;
+    chunks = new int[count][numChunks][256];
+    for (int t = 0; t < count; t++) {
+      for (int i = 0; i < numChunks; i++) {
+        for (int b = 1; b < 256; b++) {
+          int mask = 0;
+          for (int bit = 0; bit < 8; bit++) {
+            int cell = 8 * i + bit;
+            if ((b & (1 << bit)) != 0 && cell < cells) {
+              mask |= 1 << perms[t][cell];
+            }
+          }
+          chunks[t][i][b] = mask;
+        }
+      }
+    }
+  }
+
+  /**
+   * Return the symmetries of boards with the given number of rows and columns, shared by
+   * every caller in the JVM.
+   *
+   * @param rows the number of rows on the board
+   * @param cols the number of columns on the board
+   * @return the symmetries of the board
+   * @throws IllegalArgumentException if the board has more than 32 cells
+   */
+  public static BoardSymmetry of(int rows, int cols) {
+    return SYMMETRIES.computeIfAbsent(((long) rows << 32) | cols,
+        unused -> new BoardSymmetry(rows, cols));
+  }
+
+  /**
+   * Returns the image of row r, column c under one of the eight symmetries of the square,
+   * numbered as: identity, quarter turn, half turn, three-quarter turn, left-right mirror,
+   * top-bottom mirror, transpose and anti-transpose. Only the identity, the half turn and
+   * the two mirrors are used on boards that are not square.
+   */
+  private int image(int t, int r, int c) {
+    int lastR = rows - 1;
+    int lastC = cols - 1;
+    switch (t) {
+      case 0:
+        return r * cols + c;
+      case 1:
+        return c * cols + (lastR - r);
+      case 2:
+        return (lastR - r) * cols + (lastC - c);
+      case 3:
+        return (lastC - c) * cols + r;
+      case 4:
+        return r * cols + (lastC - c);
+      case 5:
+        return (lastR - r) * cols + c;
+      case 6:
+        return c * cols + r;
+      default:
+        return (lastC - c) * cols + (lastR - r);
+    }
+  }
+
+  /**
+   * Return the number of symmetries of the board: 8 for a square board, 4 otherwise.
+   *
+   * @return the number of symmetries
+   */
+  public int size() {
+    return perms.length;
+  }
+
+  /**
+   * Return the image of a mask under one of the symmetries.
+   *
+   * @param t    the symmetry, from 0 to {@code size() - 1}
+   * @param mask the mask to transform
+   * @return the transformed mask
+   */
+  public int transform(int t, int mask) {
+    int[][] table = chunks[t];
+    int result = 0;
+    for (int i = 0; i < table.length; i++) {
+      result |= table[i][(mask >>> (8 * i)) & 0xff];
+    }
+    return result;
+  }
+
+  /**
+   * Return the key of a position: the two masks packed into a single {@code long}.
+   *
+   * @param first  the mask of the first player
+   * @param second the mask of the second player
+   * @return the key of the position
+   */
+  public static long key(int first, int second) {
+    return (first & 0xffffffffL) | ((long) second << 32);
+  }
+
+  /**
+   * Return the symmetry that maps the given position to its canonical form.
+   *
+   * @param first  the mask of the first player
+   * @param second the mask of the second player
+   * @return the symmetry to apply to reach the canonical form
+   */
+  public int canonicalTransform(int first, int second) {
+    int best = 0;
+    long bestKey = key(first, second);
+    for (int t = 1; t < perms.length; t++) {
+      long k = key(transform(t, first), transform(t, second));
+      if (Long.compareUnsigned(k, bestKey) < 0) {
+        bestKey = k;
+        best = t;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Return the key of the canonical form of the given position. Equivalent positions have
+   * the same canonical key.
+   *
+   * @param first  the mask of the first player
+   * @param second the mask of the second player
+   * @return the key of the canonical form
+   */
+  public long canonicalKey(int first, int second) {
+    int t = canonicalTransform(first, second);
+    return key(transform(t, first), transform(t, second));
+  }
+
+  /**
+   * Return the symmetry that maps the given game's board to its canonical form, with X's
+   * marks as the first mask and O's marks as the second.
+   *
+   * @param game the game whose board is canonicalized
+   * @return the symmetry to apply to reach the canonical form
+   * @throws IllegalArgumentException if the game's board is not the size of this board
+   */
+  public int canonicalTransform(TicTacToe game) {
+    if (game.getRows() != rows || game.getColumns() != cols) {
+      throw new IllegalArgumentException("Game does not match the board size");
+    }
+    BoardView view = game.getBoardView();
+    int x = 0;
+    int o = 0;
+    for (int cell = 0; cell < rows * cols; cell++) {
+      Player p = view.getMarkAt(cell);
+      if (p == Player.X) {
+        x |= 1 << cell;
+      } else if (p == Player.O) {
+        o |= 1 << cell;
+      }
+    }
+    return canonicalTransform(x, o);
+  }
+
+  /**
+   * Translate a cell of a position into the matching cell of its transformed form.
+   *
+   * @param t    the symmetry
+   * @param cell the row-major index of a cell in the original position
+   * @return the index of the same cell in the transformed position
+   */
+  public int toCanonical(int t, int cell) {
+    return perms[t][cell];
+  }
+
+  /**
+   * Translate a cell of a transformed position, such as a best move found for the canonical
+   * form, back into the original orientation.
+   *
+   * @param t    the symmetry that was applied
+   * @param cell the row-major index of a cell in the transformed position
+   * @return the index of the same cell in the original position
+   */
+  public int fromCanonical(int t, int cell) {
+    return inverses[t][cell];
+  }
+}
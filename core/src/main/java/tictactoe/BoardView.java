@@ -0,0 +1,44 @@
+package tictactoe;
+
+/**
+ * A read-only view of a Tic Tac Toe board. A view is backed by the live state of its game,
+ * so it always shows the current marks and never copies the board. Cells are numbered in
+ * row-major order, so the cell at row r and column c has index {@code r * getColumns() + c}.
+ */
+public interface BoardView {
+
+  /**
+   * Return the number of rows on the board.
+   *
+   * @return the number of rows
+   */
+  int getRows();
+
+  /**
+   * Return the number of columns on the board.
+   *
+   * @return the number of columns
+   */
+  int getColumns();
+
+  /**
+   * Return the current {@link Player} mark at a given row and column, or {@code null} if the
+   * position is empty.
+   *
+   * @param r the row
+   * @param c the column
+   * @return the player at the given position, or null if it's empty
+   * @throws IllegalArgumentException if the position is off the board
+   */
+  Player getMarkAt(int r, int c);
+
+  /**
+   * Return the current {@link Player} mark at a given cell index, or {@code null} if the
+   * cell is empty.
+   *
+   * @param index the row-major index of the cell
+   * @return the player at the given cell, or null if it's empty
+   * @throws IllegalArgumentException if the index is off the board
+   */
+  Player getMarkAt(int index);
+}
@@ -0,0 +1,534 @@
+package tictactoe;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * An append-only log of the moves of many games, memory-mapped from a file, from which any
+ * game can be rebuilt. Every move is one 12-byte record: the game ID as a {@code long}, then
+ * the ply (the number of moves made before it) and the row-major cell index, each as an
+ * unsigned {@code short}. Appending writes the record straight into the mapped file, so
+ * recording a move creates no objects, apart from now and then growing the index.
+ *
+ * <p>Taking a move back is recorded too, as a record with the ply of that move and the cell
+ * {@link #UNDO}, and a move made after that reuses the ply. So a game is rebuilt by
+ * playing, for each ply, the latest move recorded with it, up to where the latest record
+ * leaves the game. {@link #record(long, TicTacToe)} logs the moves, undos and redos of a
+ * game as they are made.
+ *
+ * <p>The log keeps an index in memory, built when it is opened: the latest record of every
+ * game, and for every record the one before it in the same game. Rebuilding a game reads
+ * only its own records, newest first, so it takes time in proportion to the length of that
+ * game and not of the log. The index takes 4 bytes per record and about 24 per game.
+ *
+ * <p>All games in one log are played on the same board, given when the log is created. The
+ * file holds a 32-byte header (the magic number, the format version, the number of rows,
+ * columns and the win length, then the number of records as a {@code long}) followed by
+ * the records. One file holds at most about 178 million moves; start a new log, for
+ * example every day, to keep more.
+ *
+ * <p>Records are on the disk once {@link #close()} returns. Before that, the operating system
+ * writes the mapped pages back when it chooses and in any order, so a process that dies
+ * loses nothing, but after a crash of the whole system the count in the header may cover
+ * records that never reached the disk.
+ */
+public final class GameEventLog implements Closeable {
+
+  static final int MAGIC = 0x5454544c;
+  static final int VERSION = 1;
+  static final int HEADER_BYTES = 32;
+  static final int RECORD_BYTES = 12;
+
+  /**
+   * The cell of a record that takes a move back.
+   */
+  public static final int UNDO = 0xffff;
+
+  private static final int COUNT_OFFSET = 24;
+  private static final long GROWTH_BYTES = 1L << 24;
+  private static final int MIN_INDEX = 1024;
+
+  private final FileChannel channel;
+  private final int rows;
+  private final int cols;
+  private final int winLength;
+  private MappedByteBuffer buffer;
+  private long count;
+  private long maxGameId;
+  // the game IDs in the index, in an open-addressing table, and for each one its latest
+  // record plus one, or 0 for an empty slot
+  private long[] gameIds = new long[MIN_INDEX];
+  private int[] lastRecords = new int[MIN_INDEX];
+  private int games;
+  // for each record, the game's record before it plus one, or 0 for the game's first record
+  private int[] previous = new int[MIN_INDEX];
+
+  private GameEventLog(FileChannel channel, int rows, int cols, int winLength) {
+    this.channel = channel;
+    this.rows = rows;
+    this.cols = cols;
+    this.winLength = winLength;
+  }
+
+  /**
+   * Open a log file for games on a board of the given size and win length, creating the
+   * file if it does not exist.
+   *
+   * @param file      the log file
+   * @param rows      the number of rows on the board
+   * @param cols      the number of columns on the board
+   * @param winLength the number of marks in a row needed to win
+   * @return the open log
+   * @throws IOException if the file cannot be read or written
+   * @throws IllegalArgumentException if the board is invalid or has more than 65535 cells,
+   *                                  or the file is not a log of games on this board
+   */
+  public static GameEventLog open(Path file, int rows, int cols, int winLength)
+      throws IOException {
+    // fail on an invalid board before touching the file
+    new TicTacToeModel(rows, cols, winLength);
+    if ((long) rows * cols > 0xffff) {
+      throw new IllegalArgumentException("Board too large to log: at most 65535 cells");
+    }
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      GameEventLog log = new GameEventLog(channel, rows, cols, winLength);
+      log.load(channel.size());
+      return log;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Maps the file and checks its header, or writes the header of a new file, and finds the
+   * largest game ID so far.
+   */
+  private void load(long size) throws IOException {
+    if (size == 0) {
+      map(HEADER_BYTES + GROWTH_BYTES);
+      buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, rows).putInt(12, cols)
+          .putInt(16, winLength).putLong(COUNT_OFFSET, 0);
+      return;
+    }
+    if (size < HEADER_BYTES) {
+      throw new IllegalArgumentException("Not a game event log: file too short");
+    }
+    map(size);
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+      throw new IllegalArgumentException("Not a game event log: bad header");
+    }
+    if (buffer.getInt(8) != rows || buffer.getInt(12) != cols
+        || buffer.getInt(16) != winLength) {
+      throw new IllegalArgumentException("Log is of games on another board: "
+          + buffer.getInt(8) + " * " + buffer.getInt(12) + ", " + buffer.getInt(16)
+          + " in a row");
+    }
+    count = buffer.getLong(COUNT_OFFSET);
+    if (count < 0 || HEADER_BYTES + count * RECORD_BYTES > size) {
+      throw new IllegalArgumentException("Not a game event log: bad record count");
+    }
+    for (long i = 0; i < count; i++) {
+      long gameId = buffer.getLong(offset(i));
+      maxGameId = Math.max(maxGameId, gameId);
+      index(gameId, (int) i);
+    }
+  }
+
+  /**
+   * Adds a record to the index as its game's latest.
+   */
+  private void index(long gameId, int record) {
+    if (record == previous.length) {
+      previous = Arrays.copyOf(previous, 2 * record);
+    }
+    int slot = slot(gameIds, lastRecords, gameId);
+    if (lastRecords[slot] == 0) {
+      if (2 * (games + 1) > gameIds.length) {
+        rehash();
+        slot = slot(gameIds, lastRecords, gameId);
+      }
+      gameIds[slot] = gameId;
+      games++;
+    }
+    previous[record] = lastRecords[slot];
+    lastRecords[slot] = record + 1;
+  }
+
+  /**
+   * Doubles the table of games.
+   */
+  private void rehash() {
+    long[] ids = new long[2 * gameIds.length];
+    int[] last = new int[ids.length];
+    for (int i = 0; i < gameIds.length; i++) {
+      if (lastRecords[i] != 0) {
+        int slot = slot(ids, last, gameIds[i]);
+        ids[slot] = gameIds[i];
+        last[slot] = lastRecords[i];
+      }
+    }
+    gameIds = ids;
+    lastRecords = last;
+  }
+
+  /**
+   * Returns the slot of a game in the table, or the empty slot where it would go.
+   */
+  private static int slot(long[] ids, int[] last, long gameId) {
+    int mask = ids.length - 1;
+    // Fibonacci hashing: the top log2(capacity) bits of the product, so every slot is used
+    int slot = (int) (gameId * 0x9e3779b97f4a7c15L >>> (64 - Integer.numberOfTrailingZeros(
+        ids.length)));
+    while (last[slot] != 0 && ids[slot] != gameId) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Maps the first bytes of the file, growing it if needed, and unmaps the previous mapping.
+   */
+  private void map(long bytes) throws IOException {
+    if (bytes > Integer.MAX_VALUE) {
+      throw new IllegalStateException("Log is full; start a new log file");
+    }
+    MappedByteBuffer old = buffer;
+    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+    if (old != null) {
+      unmap(old);
+    }
+  }
+
+  /**
+   * Unmaps a buffer now, rather than whenever it is collected, if the runtime allows it. The
+   * buffer must not be used again.
+   *
+   * @return whether the buffer was unmapped
+   */
+  private static boolean unmap(MappedByteBuffer mapped) {
+    try {
+      // sun.misc.Unsafe.invokeCleaner exists from Java 9, in the jdk.unsupported module
+      Class<?> unsafe = Class.forName("sun.misc.Unsafe");
+      Field theUnsafe = unsafe.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      unsafe.getMethod("invokeCleaner", ByteBuffer.class).invoke(theUnsafe.get(null), mapped);
+      return true;
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return false;
+    }
+  }
+
+  private static int offset(long record) {
+    return (int) (HEADER_BYTES + record * RECORD_BYTES);
+  }
+
+  /**
+   * Return a game ID larger than any in the log or handed out before.
+   *
+   * @return a new game ID
+   */
+  public synchronized long newGameId() {
+    return ++maxGameId;
+  }
+
+  /**
+   * Return the number of moves recorded.
+   *
+   * @return the number of records
+   */
+  public synchronized long size() {
+    return count;
+  }
+
+  /**
+   * Makes sure the next record can be written, growing the file if it is full, so that
+   * {@link #write(long, int, int)} cannot fail.
+   *
+   * @throws IllegalStateException if the log is closed or full, or cannot be grown
+   */
+  private void reserve() {
+    if (!channel.isOpen()) {
+      throw new IllegalStateException("Log is closed.");
+    }
+    if (offset(count) + RECORD_BYTES > buffer.capacity()) {
+      try {
+        map(buffer.capacity() + GROWTH_BYTES);
+      } catch (IOException e) {
+        throw new IllegalStateException("Error growing log", e);
+      }
+    }
+  }
+
+  /**
+   * Writes a record at the end of the log, which {@link #reserve()} has made room for.
+   */
+  private void write(long gameId, int ply, int cell) {
+    int at = offset(count);
+    buffer.putLong(at, gameId).putShort(at + 8, (short) ply).putShort(at + 10, (short) cell);
+    index(gameId, (int) count);
+    buffer.putLong(COUNT_OFFSET, ++count);
+    maxGameId = Math.max(maxGameId, gameId);
+  }
+
+  /**
+   * Rebuild the latest state of a game.
+   *
+   * @param gameId the ID of the game
+   * @return a new model holding the game, with an empty board if it has no moves
+   * @throws IllegalStateException if the log is closed, or its records of the game are
+   *                               damaged and cannot be played
+   */
+  public TicTacToeModel replay(long gameId) {
+    return replay(gameId, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Rebuild the state of a game after the given number of moves, or after all its moves if
+   * it has fewer.
+   *
+   * @param gameId the ID of the game
+   * @param plies  the number of moves to play
+   * @return a new model holding the game
+   * @throws IllegalArgumentException if the number of moves is negative
+   * @throws IllegalStateException    if the log is closed, or its records of the game are
+   *                                  damaged and cannot be played
+   */
+  public TicTacToeModel replay(long gameId, int plies) {
+    if (plies < 0) {
+      throw new IllegalArgumentException("Number of moves cannot be negative.");
+    }
+    int cells = rows * cols;
+    int[] moves = new int[cells];
+    Arrays.fill(moves, -1);
+    int length = -1;
+    synchronized (this) {
+      if (!channel.isOpen()) {
+        throw new IllegalStateException("Log is closed.");
+      }
+      // newest first: the latest record gives the length, then each ply takes the latest
+      // move recorded with it
+      int missing = 0;
+      int record = lastRecords[slot(gameIds, lastRecords, gameId)];
+      for (; record != 0 && (length < 0 || missing > 0); record = previous[record - 1]) {
+        int at = offset(record - 1);
+        int ply = buffer.getShort(at + 8) & 0xffff;
+        int cell = buffer.getShort(at + 10) & 0xffff;
+        if (ply >= cells || (cell >= cells && cell != UNDO)) {
+          throw corrupt(gameId);
+        }
+        if (length < 0) {
+          length = cell == UNDO ? ply : ply + 1;
+          missing = length;
+        }
+        if (cell != UNDO && ply < length && moves[ply] < 0) {
+          moves[ply] = cell;
+          missing--;
+        }
+      }
+      if (missing > 0) {
+        throw corrupt(gameId);
+      }
+    }
+    TicTacToeModel game = new TicTacToeModel(rows, cols, winLength);
+    for (int i = 0; i < Math.min(length, plies); i++) {
+      if (game.tryMove(moves[i] / cols, moves[i] % cols) != MoveStatus.OK) {
+        throw corrupt(gameId);
+      }
+    }
+    return game;
+  }
+
+  private static IllegalStateException corrupt(long gameId) {
+    return new IllegalStateException("Log is damaged: game " + gameId
+        + " cannot be replayed");
+  }
+
+  /**
+   * Return a game that records its moves in this log as they are made. Every move, undo and
+   * redo must go through the returned game; it passes them on to the given one.
+   *
+   * @param gameId the ID to record the moves under
+   * @param game   the game to record, usually with no moves made
+   * @return the recording game
+   * @throws IllegalArgumentException if the game is null or not played on this log's board
+   */
+  public TicTacToe record(long gameId, TicTacToe game) {
+    if (game == null) {
+      throw new IllegalArgumentException("Model cannot be null.");
+    }
+    if (game.getRows() != rows || game.getColumns() != cols
+        || game.getWinLength() != winLength) {
+      throw new IllegalArgumentException("Game is not played on this log's board.");
+    }
+    return new RecordingGame(gameId, game);
+  }
+
+  /**
+   * Writes the records to the disk, trims the file to them, and closes it. The file is only
+   * trimmed once it is unmapped, since touching a mapping past the end of its file crashes
+   * the process; on a runtime that cannot unmap it, the spare room is left for the next
+   * {@link #open(Path, int, int, int)} to fill.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (!channel.isOpen()) {
+      return;
+    }
+    try {
+      buffer.force();
+      MappedByteBuffer mapped = buffer;
+      buffer = null;
+      if (unmap(mapped)) {
+        channel.truncate(offset(count));
+      }
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * A game that records its moves in the log as it passes them on. Room for the record is
+   * made first, with the log locked until it is written, so a move is made if and only if it
+   * is recorded.
+   */
+  private final class RecordingGame implements TicTacToe {
+    private final long gameId;
+    private final TicTacToe game;
+    // the cells played, including moves taken back that may be redone
+    private final int[] moves;
+    private int ply;
+
+    private RecordingGame(long gameId, TicTacToe game) {
+      this.gameId = gameId;
+      this.game = game;
+      this.moves = new int[rows * cols];
+    }
+
+    @Override
+    public void move(int r, int c) {
+      synchronized (GameEventLog.this) {
+        reserve();
+        game.move(r, c);
+        moves[ply] = r * cols + c;
+        write(gameId, ply, moves[ply]);
+        ply++;
+      }
+    }
+
+    @Override
+    public MoveStatus tryMove(int r, int c) {
+      synchronized (GameEventLog.this) {
+        reserve();
+        MoveStatus status = game.tryMove(r, c);
+        if (status == MoveStatus.OK) {
+          moves[ply] = r * cols + c;
+          write(gameId, ply, moves[ply]);
+          ply++;
+        }
+        return status;
+      }
+    }
+
+    @Override
+    public void undo() {
+      synchronized (GameEventLog.this) {
+        reserve();
+        game.undo();
+        ply--;
+        write(gameId, ply, UNDO);
+      }
+    }
+
+    @Override
+    public void redo() {
+      synchronized (GameEventLog.this) {
+        reserve();
+        game.redo();
+        write(gameId, ply, moves[ply]);
+        ply++;
+      }
+    }
+
+    @Override
+    public long getLegalMoveMask() {
+      return game.getLegalMoveMask();
+    }
+
+    @Override
+    public int getLegalMoves(int[] moves) {
+      return game.getLegalMoves(moves);
+    }
+
+    @Override
+    public int getLegalMoves(long[] mask) {
+      return game.getLegalMoves(mask);
+    }
+
+    @Override
+    public Player getTurn() {
+      return game.getTurn();
+    }
+
+    @Override
+    public boolean isGameOver() {
+      return game.isGameOver();
+    }
+
+    @Override
+    public Player getWinner() {
+      return game.getWinner();
+    }
+
+    @Override
+    public Player[][] getBoard() {
+      return game.getBoard();
+    }
+
+    @Override
+    public BoardView getBoardView() {
+      return game.getBoardView();
+    }
+
+    @Override
+    public Player getMarkAt(int r, int c) {
+      return game.getMarkAt(r, c);
+    }
+
+    @Override
+    public long getZobristHash() {
+      return game.getZobristHash();
+    }
+
+    @Override
+    public int getRows() {
+      return game.getRows();
+    }
+
+    @Override
+    public int getColumns() {
+      return game.getColumns();
+    }
+
+    @Override
+    public int getWinLength() {
+      return game.getWinLength();
+    }
+
+    @Override
+    public String toString() {
+      return game.toString();
+    }
+  }
+}
@@ -0,0 +1,187 @@
+package tictactoe;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Hosts many Tic Tac Toe games in one JVM, each identified by a session ID. Sessions live in
+ * a concurrent map, so looking one up takes no lock, and every session has its own lock that
+ * guards its model, so moves in unrelated games never contend. Sessions that have not been
+ * used for longer than the idle timeout are removed by {@link #expireIdle()}, which the
+ * caller runs periodically, for example from a scheduled executor.
+ */
+public class GameSessionManager {
+
+  private final ConcurrentMap<Long, GameSession> sessions;
+  private final AtomicLong nextId;
+  private final long idleTimeoutNanos;
+
+  /**
+   * Construct a session manager with no sessions.
+   *
+   * @param idleTimeout how long a session may go unused before it expires
+   * @param unit        the unit of the idle timeout
+   * @throws IllegalArgumentException if the idle timeout is negative
+   */
+  public GameSessionManager(long idleTimeout, TimeUnit unit) {
+    if (idleTimeout < 0) {
+      throw new IllegalArgumentException("Idle timeout cannot be negative.");
+    }
+    sessions = new ConcurrentHashMap<>();
+    nextId = new AtomicLong();
+    idleTimeoutNanos = unit.toNanos(idleTimeout);
+  }
+
+  /**
+   * Start a new three-by-three game.
+   *
+   * @return the session ID of the new game
+   */
+  public long createGame() {
+    return createGame(3, 3, 3);
+  }
+
+  /**
+   * Start a new game on a board of the given size and win length.
+   *
+   * @param rows      the number of rows on the board
+   * @param cols      the number of columns on the board
+   * @param winLength the number of marks in a row needed to win
+   * @return the session ID of the new game
+   * @throws IllegalArgumentException if the board size or win length is invalid
+   */
+  public long createGame(int rows, int cols, int winLength) {
+    GameSession session = new GameSession(new TicTacToeModel(rows, cols, winLength));
+    long id = nextId.incrementAndGet();
+    sessions.put(id, session);
+    return id;
+  }
+
+  /**
+   * Make a move in the given game.
+   *
+   * @param id the session ID of the game
+   * @param r  the row of the intended move
+   * @param c  the column of the intended move
+   * @throws IllegalArgumentException if there is no such game, or the move is invalid
+   * @throws IllegalStateException    if the game is over
+   */
+  public void move(long id, int r, int c) {
+    GameSession session = lookup(id);
+    synchronized (session) {
+      checkLive(id, session);
+      session.model.move(r, c);
+      session.lastUsed = System.nanoTime();
+    }
+  }
+
+  /**
+   * Read the state of the given game while holding its lock. The model must not be kept or
+   * changed by the reader.
+   *
+   * @param id     the session ID of the game
+   * @param reader the function that reads the game
+   * @param <T>    the type of the result
+   * @return the result of the reader
+   * @throws IllegalArgumentException if there is no such game
+   */
+  public <T> T read(long id, Function<? super TicTacToe, T> reader) {
+    GameSession session = lookup(id);
+    synchronized (session) {
+      checkLive(id, session);
+      session.lastUsed = System.nanoTime();
+      return reader.apply(session.model);
+    }
+  }
+
+  /**
+   * End the given game and remove its session.
+   *
+   * @param id the session ID of the game
+   * @return true if the game existed
+   */
+  public boolean endGame(long id) {
+    GameSession session = sessions.remove(id);
+    if (session == null) {
+      return false;
+    }
+    synchronized (session) {
+      session.expired = true;
+    }
+    return true;
+  }
+
+  /**
+   * Remove every session that has not been used for longer than the idle timeout.
+   *
+   * @return the number of sessions removed
+   */
+  public int expireIdle() {
+    long now = System.nanoTime();
+    int removed = 0;
+    Iterator<GameSession> it = sessions.values().iterator();
+    while (it.hasNext()) {
+      GameSession session = it.next();
+      synchronized (session) {
+        if (now - session.lastUsed >= idleTimeoutNanos) {
+          session.expired = true;
+          it.remove();
+          removed++;
+        }
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Return the number of live sessions.
+   *
+   * @return the number of sessions
+   */
+  public int size() {
+    return sessions.size();
+  }
+
+  /**
+   * Returns the session with the given ID.
+   *
+   * @throws IllegalArgumentException if there is no such session
+   */
+  private GameSession lookup(long id) {
+    GameSession session = sessions.get(id);
+    if (session == null) {
+      throw new IllegalArgumentException("No such game: " + id);
+    }
+    return session;
+  }
+
+  /**
+   * Checks, while holding the session's lock, that it has not expired since it was found.
+   *
+   * @throws IllegalArgumentException if the session has expired
+   */
+  private static void checkLive(long id, GameSession session) {
+    if (session.expired) {
+      throw new IllegalArgumentException("No such game: " + id);
+    }
+  }
+
+  /**
+   * One hosted game. All fields except the model are guarded by the session's own lock.
+   */
+  private static final class GameSession {
+    private final TicTacToe model;
+    private long lastUsed;
+    private boolean expired;
+
+    private GameSession(TicTacToe model) {
+      this.model = model;
+      this.lastUsed = System.nanoTime();
+      this.expired = false;
+    }
+  }
+}
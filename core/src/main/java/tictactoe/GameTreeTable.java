@@ -0,0 +1,151 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A precomputed table of every legal three-by-three Tic Tac Toe position, memory-mapped from
+ * a file written by {@link GameTreeTableGenerator}, so that the perfect-play outcome, a best
+ * move and the number of moves left can be read with a single indexed lookup.
+ *
+ * <p>A position is indexed by its base-3 code: cell i, in row-major order, contributes
+ * {@code 3^i} times 0 for empty, 1 for X or 2 for O. The file holds a 12-byte header (the
+ * magic number, the format version and the number of entries) followed by one big-endian
+ * {@code short} per index. An entry has bit 15 set when the position is reachable from the
+ * empty board, the outcome in bits 8-9 (0 for a draw, 1 when X wins, 2 when O wins), the
+ * number of moves left to the end of the game in bits 4-7, and the best move as a
+ * row-major cell index in bits 0-3, or 15 if the game is over.
+ */
+public final class GameTreeTable {
+
+  static final int MAGIC = 0x54545431;
+  static final int VERSION = 1;
+  static final int ENTRIES = 19683;
+  static final int HEADER_BYTES = 12;
+
+  static final int REACHABLE = 1 << 15;
+  static final int NO_MOVE = 15;
+
+  private final ByteBuffer entries;
+
+  private GameTreeTable(ByteBuffer entries) {
+    this.entries = entries;
+  }
+
+  /**
+   * Memory-map a table file written by {@link GameTreeTableGenerator}.
+   *
+   * @param file the table file
+   * @return the loaded table
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if the file is not a table of this format
+   */
+  public static GameTreeTable load(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = HEADER_BYTES + 2L * ENTRIES;
+      if (channel.size() != size) {
+        throw new IllegalArgumentException("Not a game tree table: wrong file size");
+      }
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+          || buffer.getInt(8) != ENTRIES) {
+        throw new IllegalArgumentException("Not a game tree table: bad header");
+      }
+      return new GameTreeTable(buffer);
+    }
+  }
+
+  /**
+   * Return the base-3 index of a three-by-three game's board.
+   *
+   * @param game the game
+   * @return the index of the position, from 0 to 19682
+   * @throws IllegalArgumentException if the game is not played on a 3 * 3 board
+   */
+  public static int index(TicTacToe game) {
+    if (game.getRows() != 3 || game.getColumns() != 3 || game.getWinLength() != 3) {
+      throw new IllegalArgumentException("Only 3 * 3 games are in the table");
+    }
+    return PositionCodec.encodeShort(game);
+  }
+
+  /**
+   * Return the raw table entry for a position index, as described in the class comment.
+   *
+   * @param index the base-3 index of the position
+   * @return the entry, with bit 15 clear if the position is not reachable
+   * @throws IllegalArgumentException if the index is out of range
+   */
+  public int entry(int index) {
+    if (index < 0 || index >= ENTRIES) {
+      throw new IllegalArgumentException("Invalid position index: must be 0 to "
+          + (ENTRIES - 1));
+    }
+    return entries.getShort(HEADER_BYTES + 2 * index) & 0xffff;
+  }
+
+  /**
+   * Returns the entry for a game's position, checking that the position is reachable.
+   */
+  private int reachableEntry(TicTacToe game) {
+    int entry = entry(index(game));
+    if ((entry & REACHABLE) == 0) {
+      throw new IllegalArgumentException("Position is not reachable in a legal game");
+    }
+    return entry;
+  }
+
+  /**
+   * Return the winner of the game under perfect play from the given position, or
+   * {@code null} if it is a draw.
+   *
+   * @param game the position
+   * @return the eventual winner, or null for a draw
+   * @throws IllegalArgumentException if the position cannot arise in a legal game
+   */
+  public Player getWinner(TicTacToe game) {
+    int outcome = (reachableEntry(game) >>> 8) & 3;
+    return outcome == 0 ? null : outcome == 1 ? Player.X : Player.O;
+  }
+
+  /**
+   * Return a best move from the given position, as a row-major cell index.
+   *
+   * @param game the position
+   * @return the index of a best move, or -1 if the game is over
+   * @throws IllegalArgumentException if the position cannot arise in a legal game
+   */
+  public int getBestMove(TicTacToe game) {
+    int move = reachableEntry(game) & 15;
+    return move == NO_MOVE ? -1 : move;
+  }
+
+  /**
+   * Return the number of moves left until the game ends under perfect play.
+   *
+   * @param game the position
+   * @return the number of moves left, 0 if the game is over
+   * @throws IllegalArgumentException if the position cannot arise in a legal game
+   */
+  public int getDepthToEnd(TicTacToe game) {
+    return (reachableEntry(game) >>> 4) & 15;
+  }
+
+  /**
+   * Return the number of positions in the table that are reachable in a legal game.
+   *
+   * @return the number of reachable positions
+   */
+  public int countReachable() {
+    int count = 0;
+    for (int i = 0; i < ENTRIES; i++) {
+      if ((entry(i) & REACHABLE) != 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,128 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Offline generator for the {@link GameTreeTable} file. It enumerates every position reachable
+ * from the initial state of a {@link TicTacToeModel}, solves each one with the
+ * {@link TicTacToeSolver}, and writes the outcome, best move and moves left for each.
+ */
+public final class GameTreeTableGenerator {
+
+  private GameTreeTableGenerator() {
+  }
+
+  /**
+   * Write the game tree table to the file named by the first argument.
+   *
+   * @param args command line arguments: the output file
+   * @throws IOException if the file cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      System.err.println("Usage: GameTreeTableGenerator <output file>");
+      System.exit(2);
+    }
+    int count = generate(Paths.get(args[0]));
+    System.out.println("Wrote " + count + " positions to " + args[0]);
+  }
+
+  /**
+   * Enumerate and solve every reachable position and write the table file.
+   *
+   * @param file the file to write, replaced if it exists
+   * @return the number of reachable positions written
+   * @throws IOException if the file cannot be written
+   */
+  public static int generate(Path file) throws IOException {
+    short[] entries = new short[GameTreeTable.ENTRIES];
+    int count = visit(new int[9], 0, entries);
+
+    ByteBuffer buffer = ByteBuffer.allocate(GameTreeTable.HEADER_BYTES
+        + 2 * GameTreeTable.ENTRIES);
+    buffer.putInt(GameTreeTable.MAGIC)
+        .putInt(GameTreeTable.VERSION)
+        .putInt(GameTreeTable.ENTRIES);
+    for (short entry : entries) {
+      buffer.putShort(entry);
+    }
+    buffer.flip();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Records the position reached by the given moves, if it is new, and every position
+   * reachable from it.
+   *
+   * @param moves    the cells marked so far, in order
+   * @param numMoves the number of moves made
+   * @param entries  the table entries being filled
+   * @return the number of new positions recorded
+   */
+  private static int visit(int[] moves, int numMoves, short[] entries) {
+    TicTacToe game = new TicTacToeModel();
+    for (int i = 0; i < numMoves; i++) {
+      game.move(moves[i] / 3, moves[i] % 3);
+    }
+    int index = GameTreeTable.index(game);
+    if (entries[index] != 0) {
+      return 0;
+    }
+    entries[index] = (short) solve(game, numMoves);
+
+    int count = 1;
+    if (!game.isGameOver()) {
+      BoardView view = game.getBoardView();
+      for (int cell = 0; cell < 9; cell++) {
+        if (view.getMarkAt(cell) == null) {
+          moves[numMoves] = cell;
+          count += visit(moves, numMoves + 1, entries);
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Builds the table entry for a position.
+   */
+  private static int solve(TicTacToe game, int numMoves) {
+    int empties = 9 - numMoves;
+    int outcome;
+    int depth;
+    int move;
+    if (game.isGameOver()) {
+      Player winner = game.getWinner();
+      outcome = winner == null ? 0 : winner == Player.X ? 1 : 2;
+      depth = 0;
+      move = GameTreeTable.NO_MOVE;
+    } else {
+      TicTacToeSolver solver = TicTacToeSolver.forGame(game);
+      int value = solver.evaluate(game);
+      move = solver.bestMove(game);
+      if (value == 0) {
+        // a drawn game only ends when the board is full
+        outcome = 0;
+        depth = empties;
+      } else {
+        Player winner = value > 0 ? game.getTurn()
+            : game.getTurn() == Player.X ? Player.O : Player.X;
+        outcome = winner == Player.X ? 1 : 2;
+        // the solver scores a result as one more than the empty cells left at the end
+        depth = empties - (Math.abs(value) - 1);
+      }
+    }
+    return GameTreeTable.REACHABLE | (outcome << 8) | (depth << 4) | move;
+  }
+}
@@ -0,0 +1,317 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A policy that searches with Monte Carlo tree search for as long as its time budget allows,
+ * so it plays reasonably on boards far too large for {@link TicTacToeSolver}. Each iteration
+ * walks down the tree by upper confidence bounds (UCT), adds the children of the leaf it
+ * reaches, and scores one of them with a random playout to the end of the game.
+ *
+ * <p>The search is root-parallel: every worker thread grows a tree of its own from the
+ * current position, on a private copy of the game, and the move visited most often across
+ * all the trees is played. A tree is stored in parallel arrays indexed by node number rather
+ * than as one object per node, and each worker keeps its arrays and its copy of the game
+ * for every search, so searching allocates nothing once the arrays have grown.
+ */
+public final class MctsMovePolicy implements MovePolicy {
+
+  /**
+   * The most nodes one worker's tree may hold. A full tree keeps searching, but no longer
+   * grows.
+   */
+  private static final int MAX_NODES = 1 << 20;
+
+  private static final double EXPLORATION = Math.sqrt(2);
+
+  private final long budgetNanos;
+  private final Worker[] workers;
+  private int[] totals;
+
+  /**
+   * Construct a policy that searches on one thread per processor.
+   *
+   * @param budget how long to search for each move
+   * @param unit   the unit of the budget
+   * @throws IllegalArgumentException if the budget is not positive
+   */
+  public MctsMovePolicy(long budget, TimeUnit unit) {
+    this(budget, unit, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Construct a policy that searches on the given number of threads.
+   *
+   * @param budget  how long to search for each move
+   * @param unit    the unit of the budget
+   * @param threads the number of trees to grow in parallel
+   * @throws IllegalArgumentException if the budget or the number of threads is not positive
+   */
+  public MctsMovePolicy(long budget, TimeUnit unit, int threads) {
+    if (budget <= 0) {
+      throw new IllegalArgumentException("Time budget must be positive.");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive.");
+    }
+    budgetNanos = unit.toNanos(budget);
+    workers = new Worker[threads];
+    for (int i = 0; i < threads; i++) {
+      workers[i] = new Worker();
+    }
+    totals = new int[0];
+  }
+
+  @Override
+  public int chooseMove(TicTacToe game) {
+    if (game.isGameOver()) {
+      throw new IllegalStateException("Game is over.");
+    }
+    // the deadline is shared, so workers that run one after another still stop on time
+    long deadline = System.nanoTime() + budgetNanos;
+    for (Worker w : workers) {
+      // copied here, so the game is only read on the calling thread
+      w.setUp(game, deadline);
+    }
+    ForkJoinTask.invokeAll(workers);
+
+    int cells = game.getRows() * game.getColumns();
+    if (totals.length < cells) {
+      totals = new int[cells];
+    }
+    Arrays.fill(totals, 0, cells, 0);
+    for (Worker w : workers) {
+      w.addRootVisits(totals);
+    }
+    int best = -1;
+    for (int cell = 0; cell < cells; cell++) {
+      if (game.getBoardView().getMarkAt(cell) == null
+          && (best < 0 || totals[cell] > totals[best])) {
+        best = cell;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * One tree and the copy of the game it is searched on.
+   */
+  private static final class Worker extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final SplittableRandom random = new SplittableRandom();
+
+    // the tree: node 0 is the root, and the children of a node are numbered consecutively
+    private int[] firstChild = new int[0];
+    private int[] childCount = new int[0];
+    private int[] move = new int[0];
+    private int[] visits = new int[0];
+    // two points for a win and one for a draw, for the player who made the node's move
+    private int[] score = new int[0];
+    private int size;
+
+    private TicTacToeModel game;
+    private int marks;
+    private int cols;
+    private int cells;
+    private Player rootPlayer;
+    private long deadline;
+    private int[] path = new int[0];
+    private int[] empty = new int[0];
+
+    /**
+     * Copies the position into this worker's game, and empties the tree.
+     */
+    private void setUp(TicTacToe position, long deadline) {
+      int rows = position.getRows();
+      cols = position.getColumns();
+      int k = position.getWinLength();
+      if (game == null || game.getRows() != rows || game.getColumns() != cols
+          || game.getWinLength() != k) {
+        game = new TicTacToeModel(rows, cols, k);
+        cells = rows * cols;
+        path = new int[cells + 1];
+        empty = new int[cells];
+      } else {
+        for (; marks > 0; marks--) {
+          game.undo();
+        }
+      }
+      replay(position.getBoardView());
+      rootPlayer = game.getTurn();
+      this.deadline = deadline;
+      size = 0;
+      newNode(-1);
+      reinitialize();
+    }
+
+    /**
+     * Plays the marks on the board alternately, X first. No line can be completed on the
+     * way, because none is complete on the board.
+     */
+    private void replay(BoardView view) {
+      int[] xs = path;
+      int[] os = empty;
+      int numX = 0;
+      int numO = 0;
+      for (int cell = 0; cell < cells; cell++) {
+        Player p = view.getMarkAt(cell);
+        if (p == Player.X) {
+          xs[numX++] = cell;
+        } else if (p == Player.O) {
+          os[numO++] = cell;
+        }
+      }
+      if (numX != numO && numX != numO + 1) {
+        throw new IllegalArgumentException("Position cannot be reached with X moving first.");
+      }
+      for (int i = 0; i < numX; i++) {
+        play(xs[i]);
+        if (i < numO) {
+          play(os[i]);
+        }
+      }
+      marks = numX + numO;
+    }
+
+    @Override
+    protected void compute() {
+      do {
+        iterate();
+      } while (System.nanoTime() < deadline);
+    }
+
+    /**
+     * Adds the visits of the root's children to the totals, by cell.
+     */
+    private void addRootVisits(int[] totals) {
+      if (firstChild[0] < 0) {
+        return;
+      }
+      for (int c = firstChild[0]; c < firstChild[0] + childCount[0]; c++) {
+        totals[move[c]] += visits[c];
+      }
+    }
+
+    /**
+     * Runs one iteration of selection, expansion, playout and backup.
+     */
+    private void iterate() {
+      int node = 0;
+      int depth = 0;
+      path[0] = 0;
+      while (firstChild[node] >= 0 && !game.isGameOver()) {
+        node = select(node);
+        play(move[node]);
+        path[++depth] = node;
+      }
+      if (!game.isGameOver() && size + cells <= MAX_NODES) {
+        expand(node);
+        node = firstChild[node] + random.nextInt(childCount[node]);
+        play(move[node]);
+        path[++depth] = node;
+      }
+      int played = depth + playout();
+
+      Player winner = game.getWinner();
+      for (int d = depth; d >= 0; d--) {
+        int n = path[d];
+        visits[n]++;
+        if (winner == null) {
+          score[n] += 1;
+        } else if ((winner == rootPlayer) == (d % 2 == 1)) {
+          // the root player made the moves into the nodes at odd depths
+          score[n] += 2;
+        }
+      }
+      for (int i = 0; i < played; i++) {
+        game.undo();
+      }
+    }
+
+    /**
+     * Returns the child with the highest upper confidence bound, or the first one not yet
+     * visited.
+     */
+    private int select(int node) {
+      int first = firstChild[node];
+      int end = first + childCount[node];
+      double logVisits = Math.log(visits[node]);
+      int best = first;
+      double bestValue = Double.NEGATIVE_INFINITY;
+      for (int c = first; c < end; c++) {
+        if (visits[c] == 0) {
+          return c;
+        }
+        double value = score[c] / (2.0 * visits[c])
+            + EXPLORATION * Math.sqrt(logVisits / visits[c]);
+        if (value > bestValue) {
+          bestValue = value;
+          best = c;
+        }
+      }
+      return best;
+    }
+
+    /**
+     * Adds a child to the node for every empty cell.
+     */
+    private void expand(int node) {
+      int first = size;
+      int count = game.getLegalMoves(empty);
+      for (int i = 0; i < count; i++) {
+        newNode(empty[i]);
+      }
+      firstChild[node] = first;
+      childCount[node] = size - first;
+    }
+
+    /**
+     * Plays random moves until the game ends.
+     *
+     * @return the number of moves played
+     */
+    private int playout() {
+      if (game.isGameOver()) {
+        return 0;
+      }
+      int count = game.getLegalMoves(empty);
+      int played = 0;
+      while (!game.isGameOver()) {
+        int i = random.nextInt(count);
+        play(empty[i]);
+        empty[i] = empty[--count];
+        played++;
+      }
+      return played;
+    }
+
+    private void play(int cell) {
+      game.move(cell / cols, cell % cols);
+    }
+
+    /**
+     * Adds an unexpanded node for the given move, growing the arrays if they are full.
+     */
+    private void newNode(int cell) {
+      if (size == move.length) {
+        int capacity = Math.min(MAX_NODES, Math.max(1024, 2 * size));
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        childCount = Arrays.copyOf(childCount, capacity);
+        move = Arrays.copyOf(move, capacity);
+        visits = Arrays.copyOf(visits, capacity);
+        score = Arrays.copyOf(score, capacity);
+      }
+      firstChild[size] = -1;
+      childCount[size] = 0;
+      move[size] = cell;
+      visits[size] = 0;
+      score[size] = 0;
+      size++;
+    }
+  }
+}
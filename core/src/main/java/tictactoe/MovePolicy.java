@@ -0,0 +1,19 @@
+package tictactoe;
+
+/**
+ * A way of choosing moves in games played without a person, such as simulations and
+ * computer opponents. A policy may keep state between moves, like a random number generator
+ * or a search table, so one policy should be used by only one thread at a time.
+ */
+@FunctionalInterface
+public interface MovePolicy {
+
+  /**
+   * Return the move to make in the given game, as a row-major cell index, so the move is
+   * at row {@code index / game.getColumns()} and column {@code index % game.getColumns()}.
+   *
+   * @param game the game to move in, which is not over
+   * @return the index of an empty cell
+   */
+  int chooseMove(TicTacToe game);
+}
@@ -0,0 +1,42 @@
+package tictactoe;
+
+/**
+ * The result of {@link TicTacToe#tryMove(int, int)}: the move was made, or why it was not.
+ */
+public enum MoveStatus {
+
+  /**
+   * The move was made.
+   */
+  OK("Move made."),
+
+  /**
+   * The game is over, so no more moves can be made.
+   */
+  GAME_OVER("The game is over."),
+
+  /**
+   * The row or the column is outside the board.
+   */
+  OUT_OF_BOUNDS("Invalid position: outside the board"),
+
+  /**
+   * The cell already holds a mark.
+   */
+  OCCUPIED("Invalid position: position is already occupied");
+
+  private final String message;
+
+  MoveStatus(String message) {
+    this.message = message;
+  }
+
+  /**
+   * Return a description of the result, fit to show to a player.
+   *
+   * @return the description
+   */
+  public String getMessage() {
+    return message;
+  }
+}
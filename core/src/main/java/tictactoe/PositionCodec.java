@@ -0,0 +1,149 @@
+package tictactoe;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary encodings of positions, for moving them between processes and into
+ * storage. A three-by-three position is its base-3 code in one {@code short}: cell i, in
+ * row-major order, contributes {@code 3^i} times 0 for empty, 1 for X or 2 for O, the same
+ * code that indexes the {@link GameTreeTable}. Larger boards take two bits per cell, with
+ * the same values, four cells to a byte starting from the low bits of the first byte, and
+ * any bits left over in the last byte clear.
+ *
+ * <p>Every position has exactly one encoding, so encodings can be compared and hashed as
+ * they are. An encoding holds only the marks: both sides must know the board size and win
+ * length, and the turn and the winner follow from the marks. {@link TicTacToeModel} has
+ * constructors that rebuild a game from an encoding.
+ */
+public final class PositionCodec {
+
+  private static final int CELLS_3X3 = 9;
+  private static final int CODES_3X3 = 19683;
+
+  private PositionCodec() {
+  }
+
+  /**
+   * Return the number of bytes a position takes on a board of the given size.
+   *
+   * @param rows the number of rows on the board
+   * @param cols the number of columns on the board
+   * @return 2 for a three-by-three board, otherwise a quarter of a byte per cell, rounded up
+   * @throws IllegalArgumentException if a dimension is not positive
+   */
+  public static int encodedBytes(int rows, int cols) {
+    if (rows < 1 || cols < 1) {
+      throw new IllegalArgumentException("Invalid board size: rows and cols must be positive");
+    }
+    return rows == 3 && cols == 3 ? 2 : (int) (((long) rows * cols + 3) / 4);
+  }
+
+  /**
+   * Return the base-3 code of a three-by-three game's position.
+   *
+   * @param game the game
+   * @return the code, from 0 to 19682
+   * @throws IllegalArgumentException if the game is not played on a 3 * 3 board
+   */
+  public static short encodeShort(TicTacToe game) {
+    if (game.getRows() != 3 || game.getColumns() != 3) {
+      throw new IllegalArgumentException("Only 3 * 3 positions fit in a short");
+    }
+    BoardView view = game.getBoardView();
+    int code = 0;
+    for (int cell = CELLS_3X3 - 1; cell >= 0; cell--) {
+      code = 3 * code + value(view.getMarkAt(cell));
+    }
+    return (short) code;
+  }
+
+  /**
+   * Write a game's position at the buffer's position, advancing it by
+   * {@link #encodedBytes(int, int)} bytes.
+   *
+   * @param game the game
+   * @param out  the buffer to write to
+   * @throws BufferOverflowException if the buffer has too little room left
+   * @throws java.nio.ReadOnlyBufferException if the buffer is read-only
+   */
+  public static void encode(TicTacToe game, ByteBuffer out) {
+    int rows = game.getRows();
+    int cols = game.getColumns();
+    if (out.remaining() < encodedBytes(rows, cols)) {
+      throw new BufferOverflowException();
+    }
+    if (rows == 3 && cols == 3) {
+      out.putShort(encodeShort(game));
+      return;
+    }
+    BoardView view = game.getBoardView();
+    int cells = rows * cols;
+    int bits = 0;
+    for (int cell = 0; cell < cells; cell++) {
+      bits |= value(view.getMarkAt(cell)) << (2 * (cell & 3));
+      if ((cell & 3) == 3 || cell == cells - 1) {
+        out.put((byte) bits);
+        bits = 0;
+      }
+    }
+  }
+
+  /**
+   * Fills a three-by-three board from a base-3 code.
+   *
+   * @throws IllegalArgumentException if the code is out of range
+   */
+  static void decode(short code, Player[] board) {
+    if (code < 0 || code >= CODES_3X3) {
+      throw new IllegalArgumentException("Invalid position code: must be 0 to "
+          + (CODES_3X3 - 1));
+    }
+    int rest = code;
+    for (int cell = 0; cell < CELLS_3X3; cell++) {
+      board[cell] = mark(rest % 3);
+      rest /= 3;
+    }
+  }
+
+  /**
+   * Fills a board from the encoding at the buffer's position, advancing it past the
+   * encoding.
+   *
+   * @throws BufferUnderflowException if the buffer holds too few bytes
+   * @throws IllegalArgumentException if the bytes are not a valid encoding
+   */
+  static void decode(int rows, int cols, ByteBuffer in, Player[] board) {
+    if (in.remaining() < encodedBytes(rows, cols)) {
+      throw new BufferUnderflowException();
+    }
+    if (rows == 3 && cols == 3) {
+      decode(in.getShort(), board);
+      return;
+    }
+    int bits = 0;
+    for (int cell = 0; cell < board.length; cell++) {
+      if ((cell & 3) == 0) {
+        bits = in.get() & 0xff;
+      }
+      int value = (bits >>> (2 * (cell & 3))) & 3;
+      if (value == 3) {
+        throw new IllegalArgumentException("Invalid position encoding: bad mark in cell "
+            + cell);
+      }
+      board[cell] = mark(value);
+    }
+    if ((bits >>> (2 * (((board.length - 1) & 3) + 1))) != 0) {
+      throw new IllegalArgumentException("Invalid position encoding: bits past the board");
+    }
+  }
+
+  private static int value(Player p) {
+    return p == null ? 0 : p == Player.X ? 1 : 2;
+  }
+
+  private static Player mark(int value) {
+    return value == 0 ? null : value == 1 ? Player.X : Player.O;
+  }
+}
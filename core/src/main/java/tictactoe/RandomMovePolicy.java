@@ -0,0 +1,46 @@
+package tictactoe;
+
+import java.util.SplittableRandom;
+
+/**
+ * A policy that picks an empty cell uniformly at random.
+ */
+public final class RandomMovePolicy implements MovePolicy {
+
+  private final SplittableRandom random;
+  private int[] empty;
+
+  /**
+   * Construct a policy with a seed of its own, different from that of every other policy.
+   */
+  public RandomMovePolicy() {
+    this(new SplittableRandom());
+  }
+
+  /**
+   * Construct a policy that makes the same choices every time for the same seed.
+   *
+   * @param seed the seed of the random number generator
+   */
+  public RandomMovePolicy(long seed) {
+    this(new SplittableRandom(seed));
+  }
+
+  private RandomMovePolicy(SplittableRandom random) {
+    this.random = random;
+    this.empty = new int[9];
+  }
+
+  @Override
+  public int chooseMove(TicTacToe game) {
+    int cells = game.getRows() * game.getColumns();
+    if (empty.length < cells) {
+      empty = new int[cells];
+    }
+    int count = game.getLegalMoves(empty);
+    if (count == 0) {
+      throw new IllegalStateException("No legal moves left.");
+    }
+    return empty[random.nextInt(count)];
+  }
+}
@@ -0,0 +1,158 @@
+package tictactoe;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A policy whose moves are made by a player in another process, over a connection such as a
+ * socket. For every move it sends one line describing the game: the number of rows, the
+ * number of columns and the win length, then the board in row-major order with {@code X},
+ * {@code O} or {@code .} for each cell, all separated by spaces. The other side answers with
+ * one line holding the 1-based row and column of its move. {@link #serve} is the other side
+ * for any policy, so a bot can be run on another machine.
+ */
+public final class RemoteMovePolicy implements MovePolicy {
+
+  private final BufferedReader in;
+  private final Writer out;
+
+  /**
+   * Construct a policy that talks to a remote player over the given streams.
+   *
+   * @param in  the stream the remote player's moves are read from
+   * @param out the stream the games are sent to
+   */
+  public RemoteMovePolicy(InputStream in, OutputStream out) {
+    this.in = reader(in);
+    this.out = writer(out);
+  }
+
+  private static BufferedReader reader(InputStream in) {
+    return new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+  }
+
+  private static Writer writer(OutputStream out) {
+    return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.US_ASCII));
+  }
+
+  @Override
+  public int chooseMove(TicTacToe game) {
+    String reply;
+    try {
+      out.write(describe(game));
+      out.write('\n');
+      out.flush();
+      reply = in.readLine();
+    } catch (IOException e) {
+      throw new IllegalStateException("Error talking to remote player", e);
+    }
+    if (reply == null) {
+      throw new IllegalStateException("Remote player disconnected.");
+    }
+    String[] parts = reply.trim().split("\\s+");
+    try {
+      if (parts.length == 2) {
+        int row = Integer.parseInt(parts[0]) - 1;
+        int col = Integer.parseInt(parts[1]) - 1;
+        int cell = row * game.getColumns() + col;
+        if (row >= 0 && row < game.getRows() && col >= 0 && col < game.getColumns()
+            && game.getBoardView().getMarkAt(cell) == null) {
+          return cell;
+        }
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new IllegalStateException("Not a valid move from remote player: " + reply);
+  }
+
+  /**
+   * Returns the line that describes a game.
+   */
+  private static String describe(TicTacToe game) {
+    BoardView view = game.getBoardView();
+    int cells = game.getRows() * game.getColumns();
+    StringBuilder sb = new StringBuilder(16 + cells);
+    sb.append(game.getRows()).append(' ').append(game.getColumns()).append(' ')
+        .append(game.getWinLength()).append(' ');
+    for (int cell = 0; cell < cells; cell++) {
+      Player p = view.getMarkAt(cell);
+      sb.append(p == null ? '.' : p.toString().charAt(0));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Answer the games sent by a {@link RemoteMovePolicy} with the moves of the given policy,
+   * until the input ends.
+   *
+   * @param policy the policy that chooses the moves
+   * @param in     the stream the games are read from
+   * @param out    the stream the moves are written to
+   * @throws IOException if reading or writing fails
+   * @throws IllegalArgumentException if a game sent is not valid
+   */
+  public static void serve(MovePolicy policy, InputStream in, OutputStream out)
+      throws IOException {
+    BufferedReader reader = reader(in);
+    Writer writer = writer(out);
+    String line;
+    while ((line = reader.readLine()) != null) {
+      TicTacToe game = parse(line);
+      int cell = policy.chooseMove(game);
+      writer.write((cell / game.getColumns() + 1) + " " + (cell % game.getColumns() + 1) + "\n");
+      writer.flush();
+    }
+  }
+
+  /**
+   * Rebuilds a game from its description, as if the marks had been played in turn with X
+   * first, checking it as {@link TicTacToeModel} checks an encoded position.
+   *
+   * @throws IllegalArgumentException if the description is not of a game that can arise in
+   *                                  play and is not over yet
+   */
+  private static TicTacToe parse(String line) {
+    String[] parts = line.trim().split("\\s+");
+    if (parts.length != 4) {
+      throw new IllegalArgumentException("Not a valid game: " + line);
+    }
+    int rows;
+    int cols;
+    int winLength;
+    try {
+      rows = Integer.parseInt(parts[0]);
+      cols = Integer.parseInt(parts[1]);
+      winLength = Integer.parseInt(parts[2]);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Not a valid game: " + line);
+    }
+    String board = parts[3];
+    if ((long) rows * cols != board.length()) {
+      throw new IllegalArgumentException("Not a valid game: " + line);
+    }
+    Player[] marks = new Player[board.length()];
+    for (int i = 0; i < marks.length; i++) {
+      char ch = board.charAt(i);
+      if (ch == 'X') {
+        marks[i] = Player.X;
+      } else if (ch == 'O') {
+        marks[i] = Player.O;
+      } else if (ch != '.') {
+        throw new IllegalArgumentException("Not a valid game: " + line);
+      }
+    }
+    TicTacToe game = new TicTacToeModel(rows, cols, winLength, marks);
+    if (game.isGameOver()) {
+      throw new IllegalArgumentException("Game is over: " + line);
+    }
+    return game;
+  }
+}
@@ -0,0 +1,202 @@
+package tictactoe;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Plays many games between two {@link MovePolicy move policies} and counts the results.
+ * The games are split across the threads of a {@link ForkJoinPool}. Each task plays its
+ * games with one model and one policy for each side that no other task is using at the
+ * time, taking every move back with {@link TicTacToe#undo()} to start the next game. They
+ * are made from the suppliers only when none is free, so a run makes about one set per
+ * thread, and all are dropped when the run ends. So a simulation allocates almost nothing
+ * per game, leaves nothing behind in the pool's threads, and policies need not be
+ * thread-safe.
+ *
+ * <p>Every game starts from the position of the model the supplier returns, usually an
+ * empty board.
+ */
+public final class SimulationEngine {
+
+  /**
+   * The fewest games worth handing to a task of their own.
+   */
+  private static final long MIN_GAMES_PER_TASK = 64;
+
+  private final Supplier<? extends TicTacToe> models;
+  private final Supplier<? extends MovePolicy> xPolicies;
+  private final Supplier<? extends MovePolicy> oPolicies;
+
+  /**
+   * Construct an engine for games between two kinds of policy.
+   *
+   * @param models    makes a model for each set of players
+   * @param xPolicies makes the policy that plays X in each set of players
+   * @param oPolicies makes the policy that plays O in each set of players
+   * @throws IllegalArgumentException if any supplier is null
+   */
+  public SimulationEngine(Supplier<? extends TicTacToe> models,
+      Supplier<? extends MovePolicy> xPolicies, Supplier<? extends MovePolicy> oPolicies) {
+    if (models == null || xPolicies == null || oPolicies == null) {
+      throw new IllegalArgumentException("Suppliers cannot be null.");
+    }
+    this.models = models;
+    this.xPolicies = xPolicies;
+    this.oPolicies = oPolicies;
+  }
+
+  /**
+   * Run a simulation of random against random play on three-by-three boards, or between
+   * the policies named on the command line, and print the results and the speed.
+   *
+   * @param args command line arguments: the number of games, one million by default, and
+   *             the policies for X and O, each {@code random} or {@code solver}
+   */
+  public static void main(String[] args) {
+    long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+    Supplier<MovePolicy> x = policy(args.length > 1 ? args[1] : "random");
+    Supplier<MovePolicy> o = policy(args.length > 2 ? args[2] : "random");
+    SimulationEngine engine = new SimulationEngine(TicTacToeModel::new, x, o);
+    long start = System.nanoTime();
+    SimulationResult result = engine.run(games);
+    long nanos = System.nanoTime() - start;
+    System.out.println(result);
+    System.out.println(result.getMoves() * TimeUnit.MINUTES.toNanos(1) / Math.max(nanos, 1)
+        + " moves per minute on " + ForkJoinPool.getCommonPoolParallelism() + " threads");
+  }
+
+  private static Supplier<MovePolicy> policy(String name) {
+    switch (name) {
+      case "random":
+        return RandomMovePolicy::new;
+      case "solver":
+        return SolverMovePolicy::new;
+      default:
+        throw new IllegalArgumentException("Unknown policy: " + name);
+    }
+  }
+
+  /**
+   * Play the given number of games on the common fork-join pool.
+   *
+   * @param games the number of games to play
+   * @return the counts of wins, draws and moves
+   * @throws IllegalArgumentException if the number of games is negative
+   */
+  public SimulationResult run(long games) {
+    return run(games, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Play the given number of games on the given fork-join pool.
+   *
+   * @param games the number of games to play
+   * @param pool  the pool whose threads play the games
+   * @return the counts of wins, draws and moves
+   * @throws IllegalArgumentException if the number of games is negative or the pool is null
+   */
+  public SimulationResult run(long games, ForkJoinPool pool) {
+    if (games < 0) {
+      throw new IllegalArgumentException("Number of games cannot be negative.");
+    }
+    if (pool == null) {
+      throw new IllegalArgumentException("Pool cannot be null.");
+    }
+    // workers not in use, kept for this run only
+    Deque<Worker> idle = new ConcurrentLinkedDeque<>();
+    // several tasks per thread, so threads that finish early can steal work
+    long perTask = Math.max(MIN_GAMES_PER_TASK, games / (8L * pool.getParallelism()));
+    return pool.invoke(new Games(idle, 0, games, perTask));
+  }
+
+  /**
+   * Plays a range of games, splitting it in two while it is large.
+   */
+  private final class Games extends RecursiveTask<SimulationResult> {
+    private static final long serialVersionUID = 1L;
+
+    private final Deque<Worker> idle;
+    private final long from;
+    private final long to;
+    private final long perTask;
+
+    private Games(Deque<Worker> idle, long from, long to, long perTask) {
+      this.idle = idle;
+      this.from = from;
+      this.to = to;
+      this.perTask = perTask;
+    }
+
+    @Override
+    protected SimulationResult compute() {
+      if (to - from <= perTask) {
+        Worker worker = idle.pollFirst();
+        if (worker == null) {
+          worker = new Worker();
+        }
+        SimulationResult result = worker.play(to - from);
+        idle.offerFirst(worker);
+        return result;
+      }
+      long middle = from + (to - from) / 2;
+      Games left = new Games(idle, from, middle, perTask);
+      left.fork();
+      SimulationResult right = new Games(idle, middle, to, perTask).compute();
+      return left.join().plus(right);
+    }
+  }
+
+  /**
+   * The model and policies of one task at a time.
+   */
+  private final class Worker {
+    private final TicTacToe game;
+    private final MovePolicy x;
+    private final MovePolicy o;
+
+    private Worker() {
+      game = models.get();
+      x = xPolicies.get();
+      o = oPolicies.get();
+      if (game == null || x == null || o == null) {
+        throw new IllegalStateException("Supplier returned null.");
+      }
+    }
+
+    /**
+     * Plays games to the end, taking the moves back after each one.
+     */
+    private SimulationResult play(long games) {
+      int cols = game.getColumns();
+      long xWins = 0;
+      long oWins = 0;
+      long draws = 0;
+      long moves = 0;
+      for (long i = 0; i < games; i++) {
+        int made = 0;
+        while (!game.isGameOver()) {
+          int cell = (game.getTurn() == Player.X ? x : o).chooseMove(game);
+          game.move(cell / cols, cell % cols);
+          made++;
+        }
+        Player winner = game.getWinner();
+        if (winner == Player.X) {
+          xWins++;
+        } else if (winner == Player.O) {
+          oWins++;
+        } else {
+          draws++;
+        }
+        moves += made;
+        for (; made > 0; made--) {
+          game.undo();
+        }
+      }
+      return new SimulationResult(xWins, oWins, draws, moves);
+    }
+  }
+}
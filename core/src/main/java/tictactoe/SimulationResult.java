@@ -0,0 +1,87 @@
+package tictactoe;
+
+/**
+ * The outcome of a batch of simulated games: how many each player won, how many were
+ * drawn, and how many moves were made in all.
+ */
+public final class SimulationResult {
+
+  private final long xWins;
+  private final long oWins;
+  private final long draws;
+  private final long moves;
+
+  /**
+   * Construct a result from its counts.
+   *
+   * @param xWins the number of games won by X
+   * @param oWins the number of games won by O
+   * @param draws the number of drawn games
+   * @param moves the number of moves made in all the games
+   */
+  SimulationResult(long xWins, long oWins, long draws, long moves) {
+    this.xWins = xWins;
+    this.oWins = oWins;
+    this.draws = draws;
+    this.moves = moves;
+  }
+
+  /**
+   * Returns the combined counts of this result and another.
+   */
+  SimulationResult plus(SimulationResult other) {
+    return new SimulationResult(xWins + other.xWins, oWins + other.oWins,
+        draws + other.draws, moves + other.moves);
+  }
+
+  /**
+   * Return the number of games played.
+   *
+   * @return the number of games
+   */
+  public long getGames() {
+    return xWins + oWins + draws;
+  }
+
+  /**
+   * Return the number of games won by X.
+   *
+   * @return X's wins
+   */
+  public long getXWins() {
+    return xWins;
+  }
+
+  /**
+   * Return the number of games won by O.
+   *
+   * @return O's wins
+   */
+  public long getOWins() {
+    return oWins;
+  }
+
+  /**
+   * Return the number of drawn games.
+   *
+   * @return the draws
+   */
+  public long getDraws() {
+    return draws;
+  }
+
+  /**
+   * Return the number of moves made in all the games.
+   *
+   * @return the moves
+   */
+  public long getMoves() {
+    return moves;
+  }
+
+  @Override
+  public String toString() {
+    return getGames() + " games: X won " + xWins + ", O won " + oWins + ", " + draws
+        + " drawn, " + moves + " moves";
+  }
+}
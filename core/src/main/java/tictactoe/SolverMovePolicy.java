@@ -0,0 +1,31 @@
+package tictactoe;
+
+/**
+ * A policy that plays perfectly, using a {@link TicTacToeSolver}. Unlike the solver shared
+ * through {@link TicTacToeSolver#forGame(TicTacToe)}, each policy has a solver and table of
+ * its own, so policies on different threads never wait for each other. Only boards of up to
+ * {@link TicTacToeSolver#MAX_CELLS} cells are supported, and only small ones are fast.
+ */
+public final class SolverMovePolicy implements MovePolicy {
+
+  private TicTacToeSolver solver;
+  private int rows;
+  private int cols;
+  private int winLength;
+
+  @Override
+  public int chooseMove(TicTacToe game) {
+    if (solver == null || game.getRows() != rows || game.getColumns() != cols
+        || game.getWinLength() != winLength) {
+      rows = game.getRows();
+      cols = game.getColumns();
+      winLength = game.getWinLength();
+      solver = new TicTacToeSolver(rows, cols, winLength);
+    }
+    int move = solver.bestMove(game);
+    if (move < 0) {
+      throw new IllegalStateException("Game is over.");
+    }
+    return move;
+  }
+}
@@ -0,0 +1,224 @@
+package tictactoe;
+
+import java.util.Arrays;
+
+/**
+ * A single game of Tic Tac Toe, played on a grid with two players, with the object of the
+ * game to achieve a number of markers in a row either vertically, horizontally, or
+ * diagonally. The classic game is played on a three-by-three grid with three in a row to
+ * win; larger boards and longer rows are played the same way. {@link Player} X goes first.
+ */
+public interface TicTacToe {
+
+  /**
+   * Execute a move in the position specified by the given row and column.
+   *
+   * @param r the row of the intended move
+   * @param c the column of the intended move
+   * @throws IllegalArgumentException if the space is occupied or the position is otherwise invalid
+   * @throws IllegalStateException if the game is over
+   */
+  void move(int r, int c);
+
+  /**
+   * Execute a move in the position specified by the given row and column if it is legal,
+   * or report why it is not, without throwing. Callers that expect bad moves, such as bots
+   * and network handlers, can check moves this way without the cost of an exception.
+   *
+   * @param r the row of the intended move
+   * @param c the column of the intended move
+   * @return {@link MoveStatus#OK} if the move was made, or why it was not
+   */
+  default MoveStatus tryMove(int r, int c) {
+    if (isGameOver()) {
+      return MoveStatus.GAME_OVER;
+    }
+    if (r < 0 || r >= getRows() || c < 0 || c >= getColumns()) {
+      return MoveStatus.OUT_OF_BOUNDS;
+    }
+    if (getBoardView().getMarkAt(r * getColumns() + c) != null) {
+      return MoveStatus.OCCUPIED;
+    }
+    move(r, c);
+    return MoveStatus.OK;
+  }
+
+  /**
+   * Return the legal moves as a bitmask, with bit i set when the row-major cell i, at row
+   * {@code i / getColumns()} and column {@code i % getColumns()}, is empty. No move is legal
+   * once the game is over.
+   *
+   * @return the mask of legal moves, or 0 if the game is over
+   * @throws IllegalStateException if the board has more than 64 cells
+   */
+  default long getLegalMoveMask() {
+    int cells = getRows() * getColumns();
+    if (cells > 64) {
+      throw new IllegalStateException("Board too large for a move mask: more than 64 cells");
+    }
+    if (isGameOver()) {
+      return 0;
+    }
+    BoardView view = getBoardView();
+    long mask = 0;
+    for (int cell = 0; cell < cells; cell++) {
+      if (view.getMarkAt(cell) == null) {
+        mask |= 1L << cell;
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Fill the given buffer with the legal moves, as row-major cell indices in increasing
+   * order, and return how many there are. No move is legal once the game is over. The
+   * buffer can be reused from call to call, so listing the moves allocates nothing.
+   *
+   * @param moves the buffer to fill, with room for at least every empty cell
+   * @return the number of legal moves written to the start of the buffer
+   * @throws IllegalArgumentException if the buffer is too short for the legal moves
+   */
+  default int getLegalMoves(int[] moves) {
+    if (isGameOver()) {
+      return 0;
+    }
+    BoardView view = getBoardView();
+    int cells = getRows() * getColumns();
+    int count = 0;
+    for (int cell = 0; cell < cells; cell++) {
+      if (view.getMarkAt(cell) == null) {
+        if (count == moves.length) {
+          throw new IllegalArgumentException("Move buffer too short: " + moves.length);
+        }
+        moves[count++] = cell;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Fill the given words with the legal moves as a bitset, for boards of any size: bit
+   * {@code i % 64} of word {@code i / 64} is set when the row-major cell i is empty, and
+   * every other bit is cleared. No move is legal once the game is over.
+   *
+   * @param mask the words to fill, at least {@code (getRows() * getColumns() + 63) / 64}
+   * @return the number of legal moves
+   * @throws IllegalArgumentException if there are too few words for the board
+   */
+  default int getLegalMoves(long[] mask) {
+    int cells = getRows() * getColumns();
+    if (mask.length < (cells + 63) >>> 6) {
+      throw new IllegalArgumentException("Move mask too short: " + mask.length + " words");
+    }
+    Arrays.fill(mask, 0);
+    if (isGameOver()) {
+      return 0;
+    }
+    BoardView view = getBoardView();
+    int count = 0;
+    for (int cell = 0; cell < cells; cell++) {
+      if (view.getMarkAt(cell) == null) {
+        mask[cell >>> 6] |= 1L << cell;
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Take back the last move, restoring the board, the turn, the winner and the game over
+   * state to what they were before it. The move can be made again with {@link #redo()}
+   * until a new move is made.
+   *
+   * @throws IllegalStateException if no move has been made
+   */
+  void undo();
+
+  /**
+   * Make again the last move taken back by {@link #undo()}.
+   *
+   * @throws IllegalStateException if there is no move to redo, either because no move has
+   *                               been taken back or because a new move was made since
+   */
+  void redo();
+
+  /**
+   * Get the current turn, i.e., the player who will mark on the next call to move().
+   *
+   * @return the {@link Player} whose turn it is
+   */
+  Player getTurn();
+
+  /**
+   * Return whether the game is over. The game is over when either the board is full, or
+   * one player has won.
+   *
+   * @return true if the game is over, false otherwise
+   */
+  boolean isGameOver();
+
+  /**
+   * Return the winner of the game, or {@code null} if there is no winner. If the game is not
+   * over, returns {@code null}.
+   *
+   * @return the winner, or null if there is no winner
+   */
+  Player getWinner();
+
+  /**
+   * Return the current game state, as a 2D array of Player. A {@code null} value in the grid
+   * indicates an empty position on the board.
+   *
+   * @return the current game board
+   */
+  Player[][] getBoard();
+
+  /**
+   * Return a read-only view of the game board. The view is backed by this game, so it
+   * reflects every later move, and repeated calls do not allocate a new board.
+   *
+   * @return a live, read-only view of the board
+   */
+  BoardView getBoardView();
+
+  /**
+   * Return the current {@link Player} mark at a given row and column, or {@code null} if the
+   * position is empty.
+   *
+   * @param r the row
+   * @param c the column
+   * @return the player at the given position, or null if it's empty
+   */
+  Player getMarkAt(int r, int c);
+
+  /**
+   * Return the Zobrist hash of the current position. The hash is kept up to date by every
+   * move, so reading it takes constant time. Equal positions on boards of the same size have
+   * equal hashes, whichever implementation holds them.
+   *
+   * @return a 64-bit hash of the board and the player to move
+   */
+  long getZobristHash();
+
+  /**
+   * Return the number of rows on the board.
+   *
+   * @return the number of rows
+   */
+  int getRows();
+
+  /**
+   * Return the number of columns on the board.
+   *
+   * @return the number of columns
+   */
+  int getColumns();
+
+  /**
+   * Return the number of markers in a row needed to win.
+   *
+   * @return the win length
+   */
+  int getWinLength();
+
+}
@@ -0,0 +1,621 @@
+package tictactoe;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This class represents the game logic for an m,n,k game: two players take turns marking
+ * the cells of a board with m rows and n columns, and the first to get k marks in a row
+ * horizontally, vertically or diagonally wins. Classic Tic Tac Toe is the 3,3,3 preset
+ * built by the no-argument constructor, and {@link #gomoku()} builds the 15,15,5 preset.
+ * It keeps track of the current state of the game board
+ * and determines if the game has been won or if it is a tie.
+ * It offers all the operations mandated by the TicTacToe interface,
+ * and two helper functions checkForWinner() and switchPlayer().
+ * On square boards where a win takes a whole line, wins are tracked incrementally
+ * with one counter per row, column and diagonal; otherwise only a window of
+ * k - 1 cells on each side of the last move is scanned.
+ */
+public class TicTacToeModel implements TicTacToe {
+
+  /**
+   * The four line directions as (row step, column step): horizontal, vertical,
+   * diagonal and anti-diagonal.
+   */
+  private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+  private final int rows;
+  private final int cols;
+  private final int winLength;
+  private final Player[] board;
+  // one bit per cell, set when the cell is marked, 64 cells to a word
+  private final long[] occupied;
+  private final BoardView boardView;
+  private final long[] zobristKeys;
+  private long zobristHash;
+  private Player currentPlayer;
+  private boolean gameOver;
+  private Player winner;
+  private int numMoves;
+  // history[0 .. numMoves) are the moves made, history[numMoves .. historyLength) can be redone
+  private final int[] history;
+  private int historyLength;
+  private final int[] rowCounts;
+  private final int[] colCounts;
+  private int diagCount;
+  private int antiDiagCount;
+
+  /**
+   * Construct a TicTacToeModel object that takes no arguments.
+   * The object creates a 3 * 3 null board with three in a row to win,
+   * sets the current player as X, game over status as false, winner as null,
+   * number of moves as 0, and all line counters as 0.
+   */
+  public TicTacToeModel() {
+    this(3, 3, 3);
+  }
+
+  /**
+   * Construct a TicTacToeModel object for a board of the given size and win length.
+   * The object creates a rows * cols null board, sets the current player as X,
+   * game over status as false, winner as null, and number of moves as 0.
+   *
+   * @param rows      the number of rows on the board
+   * @param cols      the number of columns on the board
+   * @param winLength the number of marks in a row needed to win
+   * @throws IllegalArgumentException if a dimension is not positive, or the win length
+   *                                  is not positive or longer than both dimensions
+   */
+  public TicTacToeModel(int rows, int cols, int winLength) {
+    if (rows < 1 || cols < 1) {
+      throw new IllegalArgumentException("Invalid board size: rows and cols must be positive");
+    }
+    if (winLength < 1 || winLength > Math.max(rows, cols)) {
+      throw new IllegalArgumentException(
+          "Invalid win length: must be between 1 and the longer side of the board");
+    }
+    this.rows = rows;
+    this.cols = cols;
+    this.winLength = winLength;
+    board = new Player[rows * cols];
+    occupied = new long[(rows * cols + 63) >>> 6];
+    boardView = new LiveBoardView();
+    zobristKeys = Zobrist.keys(rows * cols);
+    zobristHash = 0;
+    currentPlayer = Player.X;
+    gameOver = false;
+    winner = null;
+    numMoves = 0;
+    history = new int[rows * cols];
+    historyLength = 0;
+    // line counters are exact only when every row, column and diagonal is one whole line
+    if (rows == cols && winLength == rows) {
+      rowCounts = new int[rows];
+      colCounts = new int[cols];
+    } else {
+      rowCounts = null;
+      colCounts = null;
+    }
+    diagCount = 0;
+    antiDiagCount = 0;
+  }
+
+  /**
+   * Construct a three-by-three game, with three in a row to win, holding the position with
+   * the given base-3 code, as {@link PositionCodec#encodeShort(TicTacToe)} writes it. The
+   * marks are taken to have been played in turn, X first, so the turn, the winner and
+   * whether the game is over follow from them, and every move can be taken back.
+   *
+   * @param position the base-3 code of the position
+   * @throws IllegalArgumentException if the code is out of range or the position cannot
+   *                                  arise in a game
+   */
+  public TicTacToeModel(short position) {
+    this(3, 3, 3);
+    PositionCodec.decode(position, board);
+    restore();
+  }
+
+  /**
+   * Construct a game on a board of the given size and win length holding the position
+   * encoded at the buffer's position, as {@link PositionCodec#encode(TicTacToe, ByteBuffer)}
+   * writes it, and advance the buffer past it. The marks are taken to have been played in
+   * turn, X first, so the turn, the winner and whether the game is over follow from them,
+   * and every move can be taken back.
+   *
+   * @param rows      the number of rows on the board
+   * @param cols      the number of columns on the board
+   * @param winLength the number of marks in a row needed to win
+   * @param position  the buffer holding the encoded position
+   * @throws IllegalArgumentException if the board is invalid, the bytes are not a valid
+   *                                  encoding, or the position cannot arise in a game
+   * @throws java.nio.BufferUnderflowException if the buffer holds too few bytes
+   */
+  public TicTacToeModel(int rows, int cols, int winLength, ByteBuffer position) {
+    this(rows, cols, winLength);
+    PositionCodec.decode(rows, cols, position, board);
+    restore();
+  }
+
+  /**
+   * Constructs a game on a board of the given size and win length holding the given marks,
+   * in row-major order, null for an empty cell, checked and set up as for an encoded
+   * position.
+   *
+   * @throws IllegalArgumentException if the board is invalid, the number of marks does not
+   *                                  match it, or the position cannot arise in a game
+   */
+  TicTacToeModel(int rows, int cols, int winLength, Player[] position) {
+    this(rows, cols, winLength);
+    if (position.length != board.length) {
+      throw new IllegalArgumentException("Invalid position: " + position.length
+          + " cells for a board of " + board.length);
+    }
+    System.arraycopy(position, 0, board, 0, board.length);
+    restore();
+  }
+
+  /**
+   * Sets up the rest of the game state for the marks on the board, as if X and O had
+   * played them in turn, with a winning move, if there is one, played last.
+   *
+   * @throws IllegalArgumentException if the marks cannot arise in a game
+   */
+  private void restore() {
+    int numX = 0;
+    int numO = 0;
+    for (Player p : board) {
+      if (p == Player.X) {
+        numX++;
+      } else if (p == Player.O) {
+        numO++;
+      }
+    }
+    if (numX != numO && numX != numO + 1) {
+      throw new IllegalArgumentException(
+          "Invalid position: X must have as many marks as O or one more");
+    }
+    boolean xWon = hasLine(Player.X, -1);
+    boolean oWon = hasLine(Player.O, -1);
+    if (xWon && oWon) {
+      throw new IllegalArgumentException("Invalid position: both players have a line");
+    }
+    int last = -1;
+    if (xWon || oWon) {
+      winner = xWon ? Player.X : Player.O;
+      if ((winner == Player.X) != (numX > numO)) {
+        throw new IllegalArgumentException("Invalid position: play went on after a win");
+      }
+      // the winning move is one without which the winner would have no line
+      for (int cell = 0; cell < board.length && last < 0; cell++) {
+        if (board[cell] == winner && !hasLine(winner, cell)) {
+          last = cell;
+        }
+      }
+      if (last < 0) {
+        throw new IllegalArgumentException("Invalid position: play went on after a win");
+      }
+    }
+
+    // X and O alternately, in cell order, with the winning move last
+    int nextX = -1;
+    int nextO = -1;
+    for (int i = 0; i < numX + numO; i++) {
+      Player turn = i % 2 == 0 ? Player.X : Player.O;
+      int cell;
+      if (i == numX + numO - 1 && last >= 0) {
+        cell = last;
+      } else if (turn == Player.X) {
+        cell = nextX = nextMark(Player.X, nextX + 1, last);
+      } else {
+        cell = nextO = nextMark(Player.O, nextO + 1, last);
+      }
+      history[i] = cell;
+      occupied[cell >>> 6] |= 1L << cell;
+      zobristHash ^= zobristKeys[2 * cell + turn.ordinal()] ^ Zobrist.SIDE_TO_MOVE;
+      if (rowCounts != null) {
+        countLines(cell / cols, cell % cols, turn == Player.X ? 1 : -1);
+      }
+    }
+    numMoves = numX + numO;
+    historyLength = numMoves;
+    currentPlayer = numX == numO ? Player.X : Player.O;
+    gameOver = winner != null || numMoves == board.length;
+  }
+
+  /**
+   * Returns whether the player has k in a row, leaving out the given cell, if any.
+   */
+  private boolean hasLine(Player player, int without) {
+    if (without >= 0) {
+      board[without] = null;
+    }
+    boolean found = false;
+    for (int cell = 0; cell < board.length && !found; cell++) {
+      found = board[cell] == player && scanWindow(cell / cols, cell % cols, player);
+    }
+    if (without >= 0) {
+      board[without] = player;
+    }
+    return found;
+  }
+
+  /**
+   * Returns the first cell from the given one marked by the player, other than the cell
+   * left out.
+   */
+  private int nextMark(Player player, int from, int without) {
+    int cell = from;
+    while (board[cell] != player || cell == without) {
+      cell++;
+    }
+    return cell;
+  }
+
+  /**
+   * Create a game of gomoku: a 15 * 15 board with five in a row to win.
+   *
+   * @return a new gomoku game
+   */
+  public static TicTacToeModel gomoku() {
+    return new TicTacToeModel(15, 15, 5);
+  }
+
+
+  /**
+   * Checks if the move just made at the given row and column ended the game.
+   * If a winning line through the cell is found, sets the {@code gameOver} flag
+   * and sets the {@code winner} field to the winning player.
+   * If the board is full and there is no winner, sets the {@code gameOver} flag to true.
+   *
+   * @param r the row of the move just made
+   * @param c the column of the move just made
+   */
+  private void checkForWinner(int r, int c) {
+    boolean won = rowCounts != null
+        ? countLines(r, c, currentPlayer == Player.X ? 1 : -1)
+        : scanWindow(r, c, currentPlayer);
+    if (won) {
+      winner = currentPlayer;
+      gameOver = true;
+      return;
+    }
+    // check tie
+    if (numMoves == board.length) {
+      gameOver = true;
+    }
+  }
+
+  /**
+   * Adds a mark placed or removed at the given cell to the per-line counters. Each counter
+   * holds the sum of the marks on one row, column or diagonal, counting +1 for X and -1
+   * for O, so a line is complete exactly when its counter reaches +n or -n. Only the lines
+   * through the cell can change, so the check takes constant time.
+   *
+   * @param r     the row of the cell
+   * @param c     the column of the cell
+   * @param delta +1 to place an X or remove an O, -1 to place an O or remove an X
+   * @return true if the counted lines are now complete for the player of {@code delta}
+   */
+  private boolean countLines(int r, int c, int delta) {
+    int target = winLength * delta;
+    boolean won = (rowCounts[r] += delta) == target;
+    won |= (colCounts[c] += delta) == target;
+    if (r == c) {
+      won |= (diagCount += delta) == target;
+    }
+    if (r + c == rows - 1) {
+      won |= (antiDiagCount += delta) == target;
+    }
+    return won;
+  }
+
+  /**
+   * Counts the player's marks in a row through the given cell in each of the four
+   * directions, looking at most k - 1 cells either side of it.
+   *
+   * @param r      the row of the move just made
+   * @param c      the column of the move just made
+   * @param player the player who marked the cell
+   * @return true if the move made k or more in a row
+   */
+  private boolean scanWindow(int r, int c, Player player) {
+    for (int[] d : DIRECTIONS) {
+      int run = 1 + countRun(r, c, d[0], d[1], player)
+          + countRun(r, c, -d[0], -d[1], player);
+      if (run >= winLength) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Counts the player's consecutive marks starting next to the given cell and stepping in
+   * one direction, stopping after k - 1 cells.
+   */
+  private int countRun(int r, int c, int dr, int dc, Player player) {
+    int count = 0;
+    int i = r + dr;
+    int j = c + dc;
+    while (count < winLength - 1 && i >= 0 && i < rows && j >= 0 && j < cols
+        && board[i * cols + j] == player) {
+      count++;
+      i += dr;
+      j += dc;
+    }
+    return count;
+  }
+
+
+  /**
+   * Switches the current player by setting {@code currentPlayer} to the other player.
+   */
+  private void switchPlayer() {
+    if (currentPlayer == Player.X) {
+      currentPlayer = Player.O;
+    } else {
+      currentPlayer = Player.X;
+    }
+  }
+
+
+  /**
+   * Checks that the given row and column are on the board.
+   *
+   * @throws IllegalArgumentException if the position is off the board
+   */
+  private void checkPosition(int r, int c) {
+    if (r < 0 || r >= rows || c < 0 || c >= cols) {
+      throw new IllegalArgumentException("Invalid position: r must be 0 to " + (rows - 1)
+          + " and c must be 0 to " + (cols - 1));
+    }
+  }
+
+
+  @Override
+  public void move(int r, int c) {
+    // the game is over
+    if (gameOver) {
+      throw new IllegalStateException("The game is over.");
+    }
+
+    // the input r or c is invalid
+    checkPosition(r, c);
+
+    // the position is occupied
+    if (board[r * cols + c] != null) {
+      throw new IllegalArgumentException("Invalid position: position is already occupied");
+    }
+
+    play(r * cols + c);
+  }
+
+  @Override
+  public MoveStatus tryMove(int r, int c) {
+    if (gameOver) {
+      return MoveStatus.GAME_OVER;
+    }
+    if (r < 0 || r >= rows || c < 0 || c >= cols) {
+      return MoveStatus.OUT_OF_BOUNDS;
+    }
+    if (board[r * cols + c] != null) {
+      return MoveStatus.OCCUPIED;
+    }
+    play(r * cols + c);
+    return MoveStatus.OK;
+  }
+
+  @Override
+  public long getLegalMoveMask() {
+    if (board.length > 64) {
+      throw new IllegalStateException("Board too large for a move mask: more than 64 cells");
+    }
+    return gameOver ? 0 : freeCells(0);
+  }
+
+  @Override
+  public int getLegalMoves(int[] moves) {
+    if (gameOver) {
+      return 0;
+    }
+    if (moves.length < board.length - numMoves) {
+      throw new IllegalArgumentException("Move buffer too short: " + moves.length);
+    }
+    int count = 0;
+    for (int word = 0; word < occupied.length; word++) {
+      for (long free = freeCells(word); free != 0; free &= free - 1) {
+        moves[count++] = (word << 6) + Long.numberOfTrailingZeros(free);
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public int getLegalMoves(long[] mask) {
+    if (mask.length < occupied.length) {
+      throw new IllegalArgumentException("Move mask too short: " + mask.length + " words");
+    }
+    Arrays.fill(mask, 0);
+    if (gameOver) {
+      return 0;
+    }
+    for (int word = 0; word < occupied.length; word++) {
+      mask[word] = freeCells(word);
+    }
+    return board.length - numMoves;
+  }
+
+  /**
+   * Returns the empty cells of one word of the occupancy bitset, leaving out the bits past
+   * the end of the board.
+   */
+  private long freeCells(int word) {
+    long free = ~occupied[word];
+    return word == occupied.length - 1 ? free & (-1L >>> (-board.length & 63)) : free;
+  }
+
+  /**
+   * Makes a new move at the given empty cell, dropping any moves that could be redone.
+   *
+   * @param cell the row-major index of the cell
+   */
+  private void play(int cell) {
+    history[numMoves] = cell;
+    historyLength = numMoves + 1;
+    place(cell);
+  }
+
+  /**
+   * Marks the given empty cell for the current player, and ends the turn.
+   *
+   * @param cell the row-major index of the cell
+   */
+  private void place(int cell) {
+    board[cell] = currentPlayer;
+    occupied[cell >>> 6] |= 1L << cell;
+    zobristHash ^= zobristKeys[2 * cell + currentPlayer.ordinal()] ^ Zobrist.SIDE_TO_MOVE;
+    numMoves++;
+    checkForWinner(cell / cols, cell % cols);
+    switchPlayer();
+  }
+
+  @Override
+  public void undo() {
+    if (numMoves == 0) {
+      throw new IllegalStateException("There is no move to undo.");
+    }
+    int cell = history[--numMoves];
+    Player player = board[cell];
+    board[cell] = null;
+    occupied[cell >>> 6] &= ~(1L << cell);
+    zobristHash ^= zobristKeys[2 * cell + player.ordinal()] ^ Zobrist.SIDE_TO_MOVE;
+    if (rowCounts != null) {
+      countLines(cell / cols, cell % cols, player == Player.X ? -1 : 1);
+    }
+    // no move can follow the end of the game, so the game was not over before this move
+    currentPlayer = player;
+    gameOver = false;
+    winner = null;
+  }
+
+  @Override
+  public void redo() {
+    if (numMoves == historyLength) {
+      throw new IllegalStateException("There is no move to redo.");
+    }
+    place(history[numMoves]);
+  }
+
+
+  @Override
+  public Player getTurn() {
+    return currentPlayer;
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return gameOver;
+  }
+
+  @Override
+  public Player getWinner() {
+    return winner;
+  }
+
+  @Override
+  public Player[][] getBoard() {
+    Player[][] copyBoard = new Player[rows][cols];
+    for (int i = 0; i < rows; i++) {
+      System.arraycopy(board, i * cols, copyBoard[i], 0, cols);
+    }
+    return copyBoard;
+  }
+
+  @Override
+  public long getZobristHash() {
+    return zobristHash;
+  }
+
+  @Override
+  public BoardView getBoardView() {
+    return boardView;
+  }
+
+  @Override
+  public Player getMarkAt(int r, int c) {
+    checkPosition(r, c);
+
+    return board[r * cols + c];
+  }
+
+  @Override
+  public int getRows() {
+    return rows;
+  }
+
+  @Override
+  public int getColumns() {
+    return cols;
+  }
+
+  @Override
+  public int getWinLength() {
+    return winLength;
+  }
+
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(rows * (8 * cols + 1));
+    for (int i = 0; i < rows; i++) {
+      if (i > 0) {
+        sb.append('\n');
+        for (int j = 0; j < 4 * cols - 1; j++) {
+          sb.append('-');
+        }
+        sb.append('\n');
+      }
+      for (int j = 0; j < cols; j++) {
+        if (j > 0) {
+          sb.append(" |");
+        }
+        Player p = board[i * cols + j];
+        sb.append(' ').append(p == null ? " " : p.toString());
+      }
+    }
+    return sb.toString();
+  }
+
+
+  /**
+   * The read-only view of this game's board, reading straight from the live cells.
+   */
+  private class LiveBoardView implements BoardView {
+
+    @Override
+    public int getRows() {
+      return rows;
+    }
+
+    @Override
+    public int getColumns() {
+      return cols;
+    }
+
+    @Override
+    public Player getMarkAt(int r, int c) {
+      return TicTacToeModel.this.getMarkAt(r, c);
+    }
+
+    @Override
+    public Player getMarkAt(int index) {
+      if (index < 0 || index >= board.length) {
+        throw new IllegalArgumentException("Invalid cell index: must be 0 to "
+            + (board.length - 1));
+      }
+      return board[index];
+    }
+  }
+
+}
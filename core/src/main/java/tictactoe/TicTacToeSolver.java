@@ -0,0 +1,370 @@
+package tictactoe;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Computes the game-theoretic value and a best move for any {@link TicTacToe} position with
+ * perfect play from both sides. The search is negamax with alpha-beta pruning over a pair of
+ * bit masks, one per player, backed by a transposition table keyed by the two masks packed
+ * into a single {@code long}. Positions are stored in their {@link BoardSymmetry canonical}
+ * form, so all rotations and reflections of a position share one table entry.
+ *
+ * <p>Values are from the point of view of the player to move: a positive value is a forced
+ * win, zero is a draw and a negative value is a forced loss. The magnitude is one more than
+ * the number of empty cells left when the game ends, so faster wins and slower losses score
+ * higher.
+ *
+ * <p>One solver is shared by every game of the same size and win length in the JVM, see
+ * {@link #forGame(TicTacToe)}, so the table filled by the first solve answers later queries
+ * from any game almost immediately. Boards of up to 32 cells are supported, but only small
+ * boards can be solved in reasonable time.
+ *
+ * <p>The table takes 12 bytes a slot. It starts with 1024 slots and doubles whenever more
+ * than half of them are filled, up to 65536 slots (768 KB) for boards of up to nine cells,
+ * which is room for every position, or 4194304 slots (48 MB) for larger boards, after which
+ * entries replace each other. So a solver costs only as much memory as its searches need.
+ */
+public final class TicTacToeSolver {
+
+  /**
+   * The largest board, in cells, that fits in the solver's masks.
+   */
+  public static final int MAX_CELLS = 32;
+
+  private static final int EXACT = 0;
+  private static final int LOWER = 1;
+  private static final int UPPER = 2;
+
+  private static final int MIN_SLOTS = 1 << 10;
+
+  private static final ConcurrentMap<Long, TicTacToeSolver> SOLVERS = new ConcurrentHashMap<>();
+
+  private final int rows;
+  private final int cols;
+  private final int winLength;
+  private final int cells;
+  private final int[][] linesThrough;
+  private final BoardSymmetry symmetry;
+
+  // transposition table: one slot per hash, always replaced, grown while more than half full
+  private long[] keys;
+  private int[] entries;
+  private int shift;
+  private int filled;
+  private final int maxSlots;
+
+  /**
+   * Construct a solver for boards of the given size and win length, with an empty table.
+   *
+   * @param rows      the number of rows on the board
+   * @param cols      the number of columns on the board
+   * @param winLength the number of marks in a row needed to win
+   * @throws IllegalArgumentException if the board has more than {@link #MAX_CELLS} cells
+   */
+  TicTacToeSolver(int rows, int cols, int winLength) {
+    if (rows * cols > MAX_CELLS) {
+      throw new IllegalArgumentException("Board too large to solve: at most " + MAX_CELLS
+          + " cells");
+    }
+    this.rows = rows;
+    this.cols = cols;
+    this.winLength = winLength;
+    this.cells = rows * cols;
+    this.linesThrough = buildLines(rows, cols, winLength);
+    this.symmetry = BoardSymmetry.of(rows, cols);
+    this.maxSlots = cells <= 9 ? 1 << 16 : 1 << 22;
+    this.keys = new long[MIN_SLOTS];
+    this.entries = new int[MIN_SLOTS];
+    this.shift = 64 - Integer.numberOfTrailingZeros(MIN_SLOTS);
+  }
+
+  /**
+   * Return the solver shared by all games with the same board size and win length as the
+   * given game, creating it on first use.
+   *
+   * @param game the game to be solved
+   * @return the shared solver for games like this one
+   * @throws IllegalArgumentException if the game is null or its board is too large
+   */
+  public static TicTacToeSolver forGame(TicTacToe game) {
+    if (game == null) {
+      throw new IllegalArgumentException("Model cannot be null.");
+    }
+    int r = game.getRows();
+    int c = game.getColumns();
+    int k = game.getWinLength();
+    long id = ((long) r << 40) | ((long) c << 20) | k;
+    return SOLVERS.computeIfAbsent(id, unused -> new TicTacToeSolver(r, c, k));
+  }
+
+  /**
+   * Returns the masks of all k-in-a-row windows on a board of at most {@link #MAX_CELLS}
+   * cells.
+   *
+   * @param rows the number of rows on the board
+   * @param cols the number of columns on the board
+   * @param k    the number of marks in a row needed to win
+   * @return one mask per window, with a bit set for each of its cells
+   */
+  static int[] windows(int rows, int cols, int k) {
+    int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+    int[] windows = new int[4 * rows * cols];
+    int numWindows = 0;
+    for (int[] d : directions) {
+      for (int r = 0; r < rows; r++) {
+        for (int c = 0; c < cols; c++) {
+          int endR = r + (k - 1) * d[0];
+          int endC = c + (k - 1) * d[1];
+          if (endR < 0 || endR >= rows || endC < 0 || endC >= cols) {
+            continue;
+          }
+          int mask = 0;
+          for (int i = 0; i < k; i++) {
+            mask |= 1 << ((r + i * d[0]) * cols + c + i * d[1]);
+          }
+          windows[numWindows++] = mask;
+        }
+      }
+    }
+    return Arrays.copyOf(windows, numWindows);
+  }
+
+  /**
+   * Builds, for every cell, the masks of all k-in-a-row windows that contain it.
+   */
+  private static int[][] buildLines(int rows, int cols, int k) {
+    int[] windows = windows(rows, cols, k);
+    int[] counts = new int[rows * cols];
+    for (int mask : windows) {
+      for (int bits = mask; bits != 0; bits &= bits - 1) {
+        counts[Integer.numberOfTrailingZeros(bits)]++;
+      }
+    }
+    int[][] lines = new int[rows * cols][];
+    for (int cell = 0; cell < lines.length; cell++) {
+      lines[cell] = new int[counts[cell]];
+      counts[cell] = 0;
+    }
+    for (int mask : windows) {
+      for (int bits = mask; bits != 0; bits &= bits - 1) {
+        int cell = Integer.numberOfTrailingZeros(bits);
+        lines[cell][counts[cell]++] = mask;
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Return the value of the given position for the player to move. If the game is over,
+   * a win for the last mover is reported as a loss for the player to move.
+   *
+   * @param game the position to evaluate
+   * @return a positive value for a forced win, zero for a draw, negative for a forced loss
+   * @throws IllegalArgumentException if the game does not match this solver's board
+   */
+  public synchronized int evaluate(TicTacToe game) {
+    checkGame(game);
+    int me = mask(game, game.getTurn());
+    int opp = mask(game, other(game.getTurn()));
+    int empties = cells - Integer.bitCount(me | opp);
+    if (game.isGameOver()) {
+      return game.getWinner() == null ? 0 : -(empties + 1);
+    }
+    return negamax(me, opp, empties, -cells - 1, cells + 1);
+  }
+
+  /**
+   * Return a best move for the player to move, as a row-major cell index, so the move is
+   * at row {@code index / getColumns()} and column {@code index % getColumns()}.
+   *
+   * @param game the position to search
+   * @return the index of a best move, or -1 if the game is over
+   * @throws IllegalArgumentException if the game does not match this solver's board
+   */
+  public synchronized int bestMove(TicTacToe game) {
+    checkGame(game);
+    if (game.isGameOver()) {
+      return -1;
+    }
+    return solve(mask(game, game.getTurn()), mask(game, other(game.getTurn()))) & 0xff;
+  }
+
+  /**
+   * Returns a best move from a position given as masks, and the value of the position,
+   * for the player to move. The game must not be over.
+   *
+   * @param me  the mask of the player to move
+   * @param opp the mask of the other player
+   * @return the row-major index of a best move in the low 8 bits, and above them the value
+   *         of the position as {@link #evaluate(TicTacToe)} gives it
+   */
+  synchronized int solve(int me, int opp) {
+    int empties = cells - Integer.bitCount(me | opp);
+    int alpha = -cells - 1;
+    int best = -1;
+    for (int cell = 0; cell < cells; cell++) {
+      int bit = 1 << cell;
+      if (((me | opp) & bit) != 0) {
+        continue;
+      }
+      int score = scoreMove(me, opp, cell, empties, alpha, cells + 1);
+      if (best < 0 || score > alpha) {
+        alpha = score;
+        best = cell;
+      }
+    }
+    // the first move is searched with the full window, and every later one that beats it
+    // with a window it falls inside, so alpha is the exact value of the best move
+    return (alpha << 8) | best;
+  }
+
+  /**
+   * Negamax search with alpha-beta pruning and a transposition table.
+   *
+   * @param me      the mask of the player to move
+   * @param opp     the mask of the other player
+   * @param empties the number of empty cells, at least one
+   * @param alpha   the lower bound of the search window
+   * @param beta    the upper bound of the search window
+   * @return the value of the position for the player to move
+   */
+  private int negamax(int me, int opp, int empties, int alpha, int beta) {
+    int t = symmetry.canonicalTransform(me, opp);
+    long key = BoardSymmetry.key(symmetry.transform(t, me), symmetry.transform(t, opp));
+    int slot = slot(key);
+    int ttMove = -1;
+    if (keys[slot] == key + 1) {
+      int entry = entries[slot];
+      int score = (byte) entry;
+      int flag = (entry >>> 8) & 3;
+      if (flag == EXACT) {
+        return score;
+      } else if (flag == LOWER) {
+        alpha = Math.max(alpha, score);
+      } else {
+        beta = Math.min(beta, score);
+      }
+      if (alpha >= beta) {
+        return score;
+      }
+      int stored = (entry >>> 10) - 1;
+      ttMove = stored < 0 ? -1 : symmetry.fromCanonical(t, stored);
+    }
+
+    int originalAlpha = alpha;
+    int best = Integer.MIN_VALUE;
+    int bestMove = -1;
+    int occupied = me | opp;
+    // try the remembered best move first, then every empty cell in order
+    for (int i = -1; i < cells; i++) {
+      int cell = i < 0 ? ttMove : i;
+      if (cell < 0 || (i >= 0 && cell == ttMove) || (occupied & (1 << cell)) != 0) {
+        continue;
+      }
+      int score = scoreMove(me, opp, cell, empties, alpha, beta);
+      if (score > best) {
+        best = score;
+        bestMove = cell;
+      }
+      if (score > alpha) {
+        alpha = score;
+        if (alpha >= beta) {
+          break;
+        }
+      }
+    }
+
+    int flag = best <= originalAlpha ? UPPER : best >= beta ? LOWER : EXACT;
+    // the table may have grown during the search
+    slot = slot(key);
+    if (keys[slot] == 0 && ++filled > keys.length / 2 && keys.length < maxSlots) {
+      grow();
+      slot = slot(key);
+    }
+    keys[slot] = key + 1;
+    int storedMove = symmetry.toCanonical(t, bestMove);
+    entries[slot] = (best & 0xff) | (flag << 8) | ((storedMove + 1) << 10);
+    return best;
+  }
+
+  /**
+   * Returns the value, for the player to move, of marking the given empty cell.
+   */
+  private int scoreMove(int me, int opp, int cell, int empties, int alpha, int beta) {
+    int next = me | (1 << cell);
+    for (int line : linesThrough[cell]) {
+      if ((next & line) == line) {
+        return empties;
+      }
+    }
+    if (empties == 1) {
+      return 0;
+    }
+    return -negamax(opp, next, empties - 1, -beta, -alpha);
+  }
+
+  /**
+   * Returns the table slot for a position key.
+   */
+  private int slot(long key) {
+    return (int) (key * 0x9E3779B97F4A7C15L >>> shift);
+  }
+
+  /**
+   * Doubles the table, keeping its entries.
+   */
+  private void grow() {
+    long[] oldKeys = keys;
+    int[] oldEntries = entries;
+    keys = new long[2 * oldKeys.length];
+    entries = new int[keys.length];
+    shift--;
+    filled = 0;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0) {
+        int slot = slot(oldKeys[i] - 1);
+        if (keys[slot] == 0) {
+          filled++;
+        }
+        keys[slot] = oldKeys[i];
+        entries[slot] = oldEntries[i];
+      }
+    }
+  }
+
+  /**
+   * Checks that the game has the board size and win length this solver was built for.
+   */
+  private void checkGame(TicTacToe game) {
+    if (game == null) {
+      throw new IllegalArgumentException("Model cannot be null.");
+    }
+    if (game.getRows() != rows || game.getColumns() != cols
+        || game.getWinLength() != winLength) {
+      throw new IllegalArgumentException("Game does not match the solver's board");
+    }
+  }
+
+  /**
+   * Returns the mask of the cells marked by the given player.
+   */
+  private int mask(TicTacToe game, Player player) {
+    BoardView view = game.getBoardView();
+    int mask = 0;
+    for (int cell = 0; cell < cells; cell++) {
+      if (view.getMarkAt(cell) == player) {
+        mask |= 1 << cell;
+      }
+    }
+    return mask;
+  }
+
+  /**
+   * Returns the opponent of the given player.
+   */
+  private static Player other(Player player) {
+    return player == Player.X ? Player.O : Player.X;
+  }
+}
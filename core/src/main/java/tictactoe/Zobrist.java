@@ -0,0 +1,58 @@
+package tictactoe;
+
+/**
+ * Random keys for Zobrist hashing of Tic Tac Toe positions. The hash of a position is the
+ * exclusive or of one key per marked cell, chosen by the cell's index and its mark, and
+ * the {@link #SIDE_TO_MOVE} key when O is to move. A move therefore updates the hash in
+ * constant time, and the same position has the same hash in every model, on every board
+ * of the same size, in every run.
+ */
+final class Zobrist {
+
+  /**
+   * The key mixed in when O is to move.
+   */
+  static final long SIDE_TO_MOVE = mix(-1);
+
+  private static volatile long[] keys = new long[0];
+
+  private Zobrist() {
+  }
+
+  /**
+   * Return the keys for a board of the given number of cells. The key for cell i marked
+   * by player p is at index {@code 2 * i + p.ordinal()}. The array is shared and must not
+   * be modified.
+   *
+   * @param cells the number of cells on the board
+   * @return an array of at least {@code 2 * cells} keys
+   */
+  static long[] keys(int cells) {
+    long[] current = keys;
+    if (current.length >= 2 * cells) {
+      return current;
+    }
+    synchronized (Zobrist.class) {
+      current = keys;
+      if (current.length < 2 * cells) {
+        long[] grown = new long[Math.max(2 * cells, 2 * current.length)];
+        for (int i = 0; i < grown.length; i++) {
+          grown[i] = mix(i);
+        }
+        keys = grown;
+        current = grown;
+      }
+      return current;
+    }
+  }
+
+  /**
+   * Returns the i-th key of a fixed pseudo-random sequence (the SplitMix64 finalizer).
+   */
+  private static long mix(long i) {
+    long z = 0x5DEECE66DL + (i + 1) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,222 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+import tictactoe.BatchEvaluator;
+import tictactoe.BoardView;
+import tictactoe.Player;
+import tictactoe.TicTacToe;
+import tictactoe.TicTacToeModel;
+import tictactoe.TicTacToeSolver;
+
+/**
+ * Test cases for scoring batches of packed positions.
+ */
+public class BatchEvaluatorTest {
+
+  /**
+   * Test that a batch of random positions, larger than one task, is scored as the solver
+   * scores the same positions one at a time.
+   */
+  @Test
+  public void testMatchesSolver() {
+    checkRandomPositions(3, 3, 3, 5000, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Test a larger board, on a pool of its own.
+   */
+  @Test
+  public void testLargerBoard() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      checkRandomPositions(3, 4, 3, 3000, pool);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Test that positions that cannot arise in a game are reported as such.
+   */
+  @Test
+  public void testIllegalPositions() {
+    BatchEvaluator evaluator = new BatchEvaluator(3, 3, 3);
+    int[] xs = {
+        0b000_000_001,  // X and O on the same cell
+        1 << 9,         // X off the board
+        0b000_000_011,  // two X, no O
+        0b000_000_000,  // one O, no X
+        0b000_000_111,  // X wins, then O moves
+        0b000_101_110,  // O wins, then X moves
+        0b010_000_111,  // both win
+    };
+    int[] os = {
+        0b000_000_001,
+        0b000_000_000,
+        0b000_000_000,
+        0b000_000_001,
+        0b001_011_000,
+        0b100_010_001,
+        0b000_111_000,
+    };
+    byte[] winners = new byte[xs.length];
+    byte[] outcomes = new byte[xs.length];
+    byte[] bestMoves = new byte[xs.length];
+    evaluator.evaluate(xs, os, winners, outcomes, bestMoves);
+    for (int i = 0; i < xs.length; i++) {
+      assertEquals("position " + i, BatchEvaluator.ILLEGAL, winners[i]);
+      assertEquals("position " + i, BatchEvaluator.ILLEGAL, outcomes[i]);
+      assertEquals("position " + i, -1, bestMoves[i]);
+    }
+  }
+
+  /**
+   * Test finished games: a win for each side and a full board.
+   */
+  @Test
+  public void testFinishedGames() {
+    BatchEvaluator evaluator = new BatchEvaluator(3, 3, 3);
+    int[] xs = {0b000_000_111, 0b100_001_010, 0b011_100_101};
+    int[] os = {0b000_011_000, 0b001_010_100, 0b100_011_010};
+    byte[] winners = new byte[3];
+    byte[] outcomes = new byte[3];
+    byte[] bestMoves = new byte[3];
+    evaluator.evaluate(xs, os, winners, outcomes, bestMoves);
+    assertEquals(BatchEvaluator.X_WINS, winners[0]);
+    assertEquals(BatchEvaluator.O_WINS, winners[1]);
+    assertEquals(BatchEvaluator.NONE, winners[2]);
+    assertEquals(BatchEvaluator.X_WINS, outcomes[0]);
+    assertEquals(BatchEvaluator.O_WINS, outcomes[1]);
+    assertEquals(BatchEvaluator.NONE, outcomes[2]);
+    for (byte move : bestMoves) {
+      assertEquals(-1, move);
+    }
+  }
+
+  /**
+   * Test that a player may have several lines only if they share a cell, the same rule a
+   * model rebuilt from the position applies.
+   */
+  @Test
+  public void testSeveralLines() {
+    // two in a row wins: X has two lines with no cell in common, O none
+    int x = 0b011_000_011;
+    int o = 0b100_001_100;
+    byte[] winners = new byte[2];
+    byte[] outcomes = new byte[2];
+    byte[] bestMoves = new byte[2];
+    new BatchEvaluator(3, 3, 2).evaluate(new int[] {x}, new int[] {o}, winners, outcomes,
+        bestMoves);
+    assertEquals(BatchEvaluator.ILLEGAL, winners[0]);
+    ByteBuffer position = ByteBuffer.allocate(2).putShort((short) code(x, o));
+    position.flip();
+    try {
+      new TicTacToeModel(3, 3, 2, position);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // refused too
+    }
+
+    // X completes the top row and the left column with one move in the corner
+    new BatchEvaluator(3, 3, 3).evaluate(new int[] {0b001_001_111, x},
+        new int[] {0b110_110_000, o}, winners, outcomes, bestMoves);
+    assertEquals(BatchEvaluator.X_WINS, winners[0]);
+    assertEquals(-1, bestMoves[0]);
+  }
+
+  /**
+   * Test that arrays of the wrong length are refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testShortResults() {
+    new BatchEvaluator(3, 3, 3).evaluate(new int[4], new int[4], new byte[4], new byte[3],
+        new byte[4]);
+  }
+
+  /**
+   * Test that a board too large for the solver is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testBoardTooLarge() {
+    new BatchEvaluator(6, 6, 4);
+  }
+
+  /**
+   * Plays random games part of the way, scores the positions reached in one batch, and
+   * checks each result against a model and the solver.
+   */
+  private static void checkRandomPositions(int rows, int cols, int k, int count,
+      ForkJoinPool pool) {
+    SplittableRandom random = new SplittableRandom(42);
+    TicTacToe[] games = new TicTacToe[count];
+    int[] xs = new int[count];
+    int[] os = new int[count];
+    for (int i = 0; i < count; i++) {
+      TicTacToe game = new TicTacToeModel(rows, cols, k);
+      int plies = random.nextInt(rows * cols + 1);
+      int[] moves = new int[rows * cols];
+      for (int p = 0; p < plies && !game.isGameOver(); p++) {
+        int n = game.getLegalMoves(moves);
+        int cell = moves[random.nextInt(n)];
+        game.move(cell / cols, cell % cols);
+      }
+      BoardView view = game.getBoardView();
+      for (int cell = 0; cell < rows * cols; cell++) {
+        if (view.getMarkAt(cell) == Player.X) {
+          xs[i] |= 1 << cell;
+        } else if (view.getMarkAt(cell) == Player.O) {
+          os[i] |= 1 << cell;
+        }
+      }
+      games[i] = game;
+    }
+    byte[] winners = new byte[count];
+    byte[] outcomes = new byte[count];
+    byte[] bestMoves = new byte[count];
+    new BatchEvaluator(rows, cols, k).evaluate(xs, os, winners, outcomes, bestMoves, pool);
+
+    TicTacToeSolver solver = TicTacToeSolver.forGame(games[0]);
+    for (int i = 0; i < count; i++) {
+      TicTacToe game = games[i];
+      assertEquals(code(game.getWinner()), winners[i]);
+      if (game.isGameOver()) {
+        assertEquals(winners[i], outcomes[i]);
+        assertEquals(-1, bestMoves[i]);
+        continue;
+      }
+      int value = solver.evaluate(game);
+      Player mover = game.getTurn();
+      Player expected = value == 0 ? null : value > 0 ? mover
+          : mover == Player.X ? Player.O : Player.X;
+      assertEquals(code(expected), outcomes[i]);
+      // a best move keeps the value of the position
+      int move = bestMoves[i];
+      assertNull(game.getBoardView().getMarkAt(move));
+      game.move(move / cols, move % cols);
+      assertTrue(value == -solver.evaluate(game)
+          || (game.isGameOver() && game.getWinner() == mover));
+    }
+  }
+
+  /**
+   * Returns the base-3 code of a three-by-three position.
+   */
+  private static int code(int xs, int os) {
+    int code = 0;
+    for (int cell = 8; cell >= 0; cell--) {
+      code = 3 * code + ((xs >> cell) & 1) + 2 * ((os >> cell) & 1);
+    }
+    return code;
+  }
+
+  private static byte code(Player player) {
+    return player == null ? BatchEvaluator.NONE
+        : player == Player.X ? BatchEvaluator.X_WINS : BatchEvaluator.O_WINS;
+  }
+}
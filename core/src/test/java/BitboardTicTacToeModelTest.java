@@ -0,0 +1,14 @@
+import tictactoe.BitboardTicTacToeModel;
+import tictactoe.TicTacToe;
+
+/**
+ * Runs the tic tac toe model test cases against the bitboard implementation,
+ * so it can be swapped in for TicTacToeModel.
+ */
+public class BitboardTicTacToeModelTest extends TicTacToeModelTest {
+
+  @Override
+  protected TicTacToe makeModel() {
+    return new BitboardTicTacToeModel();
+  }
+}
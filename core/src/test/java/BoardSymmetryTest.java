@@ -0,0 +1,64 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import tictactoe.BoardSymmetry;
+import tictactoe.TicTacToe;
+import tictactoe.TicTacToeModel;
+
+/**
+ * Test cases for mapping boards to their canonical form under rotation and reflection.
+ */
+public class BoardSymmetryTest {
+
+  private final BoardSymmetry square = BoardSymmetry.of(3, 3);
+
+  /**
+   * Test that the four corner openings share one canonical form, and differ from the
+   * center and edge openings.
+   */
+  @Test
+  public void testCornerOpeningsEquivalent() {
+    long corner = square.canonicalKey(1, 0);
+    assertEquals(corner, square.canonicalKey(1 << 2, 0));
+    assertEquals(corner, square.canonicalKey(1 << 6, 0));
+    assertEquals(corner, square.canonicalKey(1 << 8, 0));
+    assertTrue(corner != square.canonicalKey(1 << 4, 0));
+    assertTrue(corner != square.canonicalKey(1 << 1, 0));
+  }
+
+  /**
+   * Test that a move translated to the canonical form and back is the original move.
+   */
+  @Test
+  public void testMoveRoundTrip() {
+    TicTacToe m = new TicTacToeModel();
+    m.move(2, 1); // X takes lower center
+    m.move(0, 2); // O takes upper right
+    int t = square.canonicalTransform(m);
+    for (int cell = 0; cell < 9; cell++) {
+      assertEquals(cell, square.fromCanonical(t, square.toCanonical(t, cell)));
+    }
+    int x = 1 << 7;
+    int o = 1 << 2;
+    long canonical = BoardSymmetry.key(square.transform(t, x), square.transform(t, o));
+    assertEquals(square.canonicalKey(x, o), canonical);
+    assertEquals(1 << square.toCanonical(t, 7), square.transform(t, x));
+  }
+
+  /**
+   * Test that a board that is not square only has the half turn and the mirrors.
+   */
+  @Test
+  public void testRectangleSymmetries() {
+    BoardSymmetry rectangle = BoardSymmetry.of(2, 3);
+    assertEquals(4, rectangle.size());
+    assertEquals(8, square.size());
+    // the four corners of a 2 * 3 board are equivalent
+    long corner = rectangle.canonicalKey(1, 0);
+    assertEquals(corner, rectangle.canonicalKey(1 << 2, 0));
+    assertEquals(corner, rectangle.canonicalKey(1 << 3, 0));
+    assertEquals(corner, rectangle.canonicalKey(1 << 5, 0));
+    assertTrue(corner != rectangle.canonicalKey(1 << 1, 0));
+  }
+}
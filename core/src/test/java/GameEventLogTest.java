@@ -0,0 +1,251 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import tictactoe.GameEventLog;
+import tictactoe.Player;
+import tictactoe.TicTacToe;
+import tictactoe.TicTacToeModel;
+
+/**
+ * Test cases for recording games in a log and replaying them.
+ */
+public class GameEventLogTest {
+
+  private Path file;
+
+  /**
+   * Pick a file name for the log, leaving the file to be created.
+   */
+  @Before
+  public void setUp() throws IOException {
+    file = Files.createTempFile("games", ".log");
+    Files.delete(file);
+  }
+
+  /**
+   * Delete the log.
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  /**
+   * Test that recorded games are replayed after the log is reopened.
+   */
+  @Test
+  public void testRecordAndReplay() throws IOException {
+    long first;
+    long second;
+    try (GameEventLog log = GameEventLog.open(file, 3, 3, 3)) {
+      first = log.newGameId();
+      second = log.newGameId();
+      TicTacToe a = log.record(first, new TicTacToeModel());
+      TicTacToe b = log.record(second, new TicTacToeModel());
+      a.move(1, 1);
+      b.move(0, 0);
+      a.move(0, 0);
+      b.move(1, 0);
+      a.move(2, 2);
+      assertEquals(5, log.size());
+    }
+    assertEquals(32 + 5 * 12, Files.size(file));
+
+    try (GameEventLog log = GameEventLog.open(file, 3, 3, 3)) {
+      TicTacToeModel a = log.replay(first);
+      assertEquals(Player.X, a.getMarkAt(1, 1));
+      assertEquals(Player.O, a.getMarkAt(0, 0));
+      assertEquals(Player.X, a.getMarkAt(2, 2));
+      assertEquals(Player.O, a.getTurn());
+      TicTacToeModel b = log.replay(second);
+      assertEquals(Player.O, b.getMarkAt(1, 0));
+      // part of a game
+      TicTacToeModel start = log.replay(first, 1);
+      assertEquals(Player.X, start.getMarkAt(1, 1));
+      assertNull(start.getMarkAt(0, 0));
+      // new IDs follow the ones in the file
+      assertTrue(log.newGameId() > second);
+      // a game with no moves
+      assertEquals(Player.X, log.replay(1234).getTurn());
+    }
+  }
+
+  /**
+   * Test that moves taken back and redone are replayed as they ended up.
+   */
+  @Test
+  public void testUndoRedo() throws IOException {
+    try (GameEventLog log = GameEventLog.open(file, 4, 4, 3)) {
+      TicTacToe game = log.record(7, new TicTacToeModel(4, 4, 3));
+      game.move(0, 0);
+      game.move(1, 1);
+      game.move(2, 2);
+      game.undo();
+      assertNull(log.replay(7).getMarkAt(2, 2));
+      game.undo();
+      game.redo();
+      assertEquals(Player.O, log.replay(7).getMarkAt(1, 1));
+      game.move(3, 3);
+      TicTacToeModel replayed = log.replay(7);
+      assertEquals(game.getZobristHash(), replayed.getZobristHash());
+      assertEquals(game.toString(), replayed.toString());
+    }
+  }
+
+  /**
+   * Test that the file grows past its first mapping.
+   */
+  @Test
+  public void testGrowth() throws IOException {
+    // a tied game, as row-major cells
+    int[] tie = {0, 1, 2, 4, 3, 5, 7, 6, 8};
+    int games = ((1 << 24) / 12 + 1000) / 9 + 1;
+    try (GameEventLog log = GameEventLog.open(file, 3, 3, 3)) {
+      for (int i = 1; i <= games; i++) {
+        TicTacToe game = log.record(i, new TicTacToeModel());
+        for (int cell : tie) {
+          game.move(cell / 3, cell % 3);
+        }
+      }
+      assertEquals(9L * games, log.size());
+      for (long id : new long[] {1, games / 2, games}) {
+        TicTacToeModel game = log.replay(id);
+        assertTrue(game.isGameOver());
+        assertNull(game.getWinner());
+        assertEquals(Player.O, game.getMarkAt(2, 0));
+      }
+    }
+    assertEquals(32 + 12L * 9 * games, Files.size(file));
+  }
+
+  /**
+   * Test that many games played at once, with moves taken back, are each replayed as they
+   * ended up, both from the log they were recorded in and after it is reopened.
+   */
+  @Test
+  public void testManyGames() throws IOException {
+    SplittableRandom random = new SplittableRandom(3);
+    TicTacToe[] games = new TicTacToe[3000];
+    long[] ids = new long[games.length];
+    int[] moves = new int[9];
+    try (GameEventLog log = GameEventLog.open(file, 3, 3, 3)) {
+      for (int i = 0; i < games.length; i++) {
+        ids[i] = log.newGameId();
+        games[i] = log.record(ids[i], new TicTacToeModel());
+      }
+      for (int round = 0; round < 12; round++) {
+        for (TicTacToe game : games) {
+          if (random.nextInt(4) == 0 && game.getLegalMoves(moves) < 9) {
+            game.undo();
+          } else if (!game.isGameOver()) {
+            int cell = moves[random.nextInt(game.getLegalMoves(moves))];
+            game.move(cell / 3, cell % 3);
+          }
+        }
+      }
+      for (int i = 0; i < games.length; i++) {
+        assertEquals(games[i].toString(), log.replay(ids[i]).toString());
+      }
+    }
+    try (GameEventLog log = GameEventLog.open(file, 3, 3, 3)) {
+      for (int i = 0; i < games.length; i++) {
+        assertEquals(games[i].getZobristHash(), log.replay(ids[i]).getZobristHash());
+      }
+    }
+  }
+
+  /**
+   * Test that a log of games on another board is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testOtherBoard() throws IOException {
+    GameEventLog.open(file, 3, 3, 3).close();
+    GameEventLog.open(file, 4, 4, 3);
+  }
+
+  /**
+   * Test that a move off the board is refused, and not recorded.
+   */
+  @Test
+  public void testInvalidCell() throws IOException {
+    try (GameEventLog log = GameEventLog.open(file, 3, 3, 3)) {
+      TicTacToe game = log.record(1, new TicTacToeModel());
+      try {
+        game.move(0, 3);
+        fail("Expected IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+        assertEquals(0, log.size());
+      }
+    }
+  }
+
+  /**
+   * Test that a closed log cannot be written.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testClosed() throws IOException {
+    GameEventLog log = GameEventLog.open(file, 3, 3, 3);
+    TicTacToe game = log.record(1, new TicTacToeModel());
+    log.close();
+    game.move(0, 0);
+  }
+
+  /**
+   * Test that a game whose records were damaged in the file is reported as such when
+   * replayed.
+   */
+  @Test
+  public void testDamagedRecords() throws IOException {
+    try (GameEventLog log = GameEventLog.open(file, 3, 3, 3)) {
+      TicTacToe game = log.record(1, new TicTacToeModel());
+      game.move(0, 0);
+      game.move(1, 1);
+    }
+    // the second move, at the end of the file, now names the first move's cell
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {0, 0}), 32 + 12 + 10);
+    }
+    try (GameEventLog log = GameEventLog.open(file, 3, 3, 3)) {
+      log.replay(1);
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertEquals("Log is damaged: game 1 cannot be replayed", e.getMessage());
+    }
+  }
+
+  /**
+   * Test that a move that cannot be recorded is not made either.
+   */
+  @Test
+  public void testMoveNotRecorded() throws IOException {
+    GameEventLog log = GameEventLog.open(file, 3, 3, 3);
+    TicTacToe game = log.record(1, new TicTacToeModel());
+    game.move(1, 1);
+    log.close();
+    try {
+      game.move(0, 0);
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertNull(game.getMarkAt(0, 0));
+      assertEquals(Player.O, game.getTurn());
+    }
+    try {
+      game.undo();
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertEquals(Player.X, game.getMarkAt(1, 1));
+    }
+  }
+}
@@ -0,0 +1,91 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import tictactoe.GameSessionManager;
+import tictactoe.Player;
+
+/**
+ * Test cases for hosting many games in one session manager.
+ */
+public class GameSessionManagerTest {
+
+  /**
+   * Test that moves are applied to the right game only.
+   */
+  @Test
+  public void testSeparateGames() {
+    GameSessionManager manager = new GameSessionManager(1, TimeUnit.HOURS);
+    long first = manager.createGame();
+    long second = manager.createGame(4, 4, 3);
+    assertTrue(first != second);
+    manager.move(first, 1, 1);
+    assertEquals(Player.X, manager.read(first, m -> m.getMarkAt(1, 1)));
+    assertEquals(Player.X, manager.read(second, m -> m.getTurn()));
+    assertEquals(Integer.valueOf(4), manager.read(second, m -> m.getRows()));
+    assertEquals(2, manager.size());
+  }
+
+  /**
+   * Test that an ended game can no longer be played.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testEndGame() {
+    GameSessionManager manager = new GameSessionManager(1, TimeUnit.HOURS);
+    long id = manager.createGame();
+    assertTrue(manager.endGame(id));
+    assertFalse(manager.endGame(id));
+    manager.move(id, 0, 0);
+  }
+
+  /**
+   * Test that idle games expire, and recently used ones do not.
+   */
+  @Test
+  public void testExpireIdle() {
+    GameSessionManager keep = new GameSessionManager(1, TimeUnit.HOURS);
+    keep.createGame();
+    assertEquals(0, keep.expireIdle());
+    assertEquals(1, keep.size());
+
+    GameSessionManager expire = new GameSessionManager(0, TimeUnit.SECONDS);
+    expire.createGame();
+    expire.createGame();
+    assertEquals(2, expire.expireIdle());
+    assertEquals(0, expire.size());
+  }
+
+  /**
+   * Test that many threads can play their own games at the same time.
+   */
+  @Test
+  public void testConcurrentGames() throws InterruptedException {
+    GameSessionManager manager = new GameSessionManager(1, TimeUnit.HOURS);
+    List<Thread> threads = new ArrayList<>();
+    long[] ids = new long[16];
+    for (int t = 0; t < ids.length; t++) {
+      long id = manager.createGame();
+      ids[t] = id;
+      Thread thread = new Thread(() -> {
+        // X wins down the left column
+        manager.move(id, 0, 0);
+        manager.move(id, 0, 1);
+        manager.move(id, 1, 0);
+        manager.move(id, 1, 1);
+        manager.move(id, 2, 0);
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (long id : ids) {
+      assertEquals(Player.X, manager.read(id, m -> m.getWinner()));
+    }
+  }
+}
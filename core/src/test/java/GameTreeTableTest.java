@@ -0,0 +1,87 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import tictactoe.GameTreeTable;
+import tictactoe.GameTreeTableGenerator;
+import tictactoe.Player;
+import tictactoe.TicTacToe;
+import tictactoe.TicTacToeModel;
+import tictactoe.TicTacToeSolver;
+
+/**
+ * Test cases for generating and loading the precomputed game tree table.
+ */
+public class GameTreeTableTest {
+
+  private static GameTreeTable table;
+
+  /**
+   * Generate the table into a temporary file and map it.
+   */
+  @BeforeClass
+  public static void generateTable() throws IOException {
+    Path file = Files.createTempFile("tictactoe", ".table");
+    file.toFile().deleteOnExit();
+    assertEquals(5478, GameTreeTableGenerator.generate(file));
+    table = GameTreeTable.load(file);
+  }
+
+  /**
+   * Test that the table holds all 5,478 legal positions.
+   */
+  @Test
+  public void testReachablePositions() {
+    assertEquals(5478, table.countReachable());
+  }
+
+  /**
+   * Test the entry for the empty board: a draw after nine moves.
+   */
+  @Test
+  public void testEmptyBoard() {
+    TicTacToe m = new TicTacToeModel();
+    assertNull(table.getWinner(m));
+    assertEquals(9, table.getDepthToEnd(m));
+  }
+
+  /**
+   * Test that the table agrees with the solver along a game, and ends with no move.
+   */
+  @Test
+  public void testFollowsSolver() {
+    TicTacToe m = new TicTacToeModel();
+    m.move(0, 0); // X takes a corner
+    m.move(0, 1); // O replies on an edge and loses
+    assertEquals(Player.X, table.getWinner(m));
+    while (!m.isGameOver()) {
+      assertEquals(TicTacToeSolver.forGame(m).bestMove(m), table.getBestMove(m));
+      int move = table.getBestMove(m);
+      m.move(move / 3, move % 3);
+    }
+    assertEquals(Player.X, m.getWinner());
+    assertEquals(-1, table.getBestMove(m));
+    assertEquals(0, table.getDepthToEnd(m));
+  }
+
+  /**
+   * Test that a position that cannot arise in a legal game is not reachable: here O has
+   * marked the upper left corner before X has moved.
+   */
+  @Test
+  public void testUnreachablePosition() {
+    assertEquals(0, table.entry(2) & 0x8000);
+  }
+
+  /**
+   * Test that only three-by-three games can be looked up.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testLargerBoardRejected() {
+    table.getBestMove(new TicTacToeModel(4, 4, 4));
+  }
+}
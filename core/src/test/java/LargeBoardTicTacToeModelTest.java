@@ -0,0 +1,160 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import tictactoe.Player;
+import tictactoe.TicTacToe;
+import tictactoe.TicTacToeModel;
+
+/**
+ * Test cases for the tic tac toe model on boards other than three-by-three, and with
+ * win lengths shorter than the side of the board.
+ */
+public class LargeBoardTicTacToeModelTest {
+
+  /**
+   * Test that gomoku is a 15 * 15 board with five in a row to win.
+   */
+  @Test
+  public void testGomokuPreset() {
+    TicTacToe m = TicTacToeModel.gomoku();
+    assertEquals(15, m.getRows());
+    assertEquals(15, m.getColumns());
+    assertEquals(5, m.getWinLength());
+    assertEquals(15, m.getBoard().length);
+    assertEquals(15, m.getBoard()[14].length);
+  }
+
+  /**
+   * Test that four in a row does not win gomoku, and five in a row does, even when the
+   * last mark is placed in the middle of the row.
+   */
+  @Test
+  public void testGomokuHorizontalWin() {
+    TicTacToe m = TicTacToeModel.gomoku();
+    int[] cols = {3, 4, 6, 7};
+    for (int c : cols) {
+      m.move(7, c);     // X
+      m.move(0, c);     // O
+    }
+    assertFalse(m.isGameOver());
+    m.move(7, 5);       // X fills the gap
+    assertTrue(m.isGameOver());
+    assertEquals(Player.X, m.getWinner());
+  }
+
+  /**
+   * Test an anti-diagonal win that runs into the edge of the board.
+   */
+  @Test
+  public void testGomokuAntiDiagonalWin() {
+    TicTacToe m = TicTacToeModel.gomoku();
+    m.move(14, 14);     // X
+    for (int i = 0; i < 4; i++) {
+      m.move(10 + i, 4 - i);     // O
+      m.move(i, 0);              // X
+    }
+    assertFalse(m.isGameOver());
+    m.move(14, 0);      // O completes (10,4) .. (14,0)
+    assertEquals(Player.O, m.getWinner());
+  }
+
+  /**
+   * Test that a four-by-four board needs a whole line to win.
+   */
+  @Test
+  public void testFourByFourDiagonalWin() {
+    TicTacToe m = new TicTacToeModel(4, 4, 4);
+    for (int i = 0; i < 3; i++) {
+      m.move(i, i);       // X
+      m.move(i, 3 - i);   // O
+    }
+    assertFalse(m.isGameOver());
+    m.move(3, 3);
+    assertEquals(Player.X, m.getWinner());
+  }
+
+  /**
+   * Test that a rectangular board ends in a tie once every cell is filled.
+   */
+  @Test
+  public void testRectangularTie() {
+    TicTacToe m = new TicTacToeModel(2, 3, 3);
+    m.move(0, 0);
+    m.move(0, 1);
+    m.move(0, 2);
+    m.move(1, 0);
+    m.move(1, 1);
+    assertFalse(m.isGameOver());
+    m.move(1, 2);
+    assertTrue(m.isGameOver());
+    assertNull(m.getWinner());
+    assertEquals(" X | O | X\n"
+        + "-----------\n"
+        + " O | X | O", m.toString());
+  }
+
+  /**
+   * Test that the board is printed with a separator as wide as its rows.
+   */
+  @Test
+  public void testToStringFourColumns() {
+    TicTacToe m = new TicTacToeModel(2, 4, 3);
+    m.move(1, 3);
+    assertEquals("   |   |   |  \n"
+        + "---------------\n"
+        + "   |   |   | X", m.toString());
+  }
+
+  /**
+   * Test that a move off the edge of a larger board is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMoveLargeBoard() {
+    TicTacToe m = new TicTacToeModel(5, 7, 4);
+    m.move(4, 7);
+  }
+
+  /**
+   * Test that a win length longer than the board is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidWinLength() {
+    new TicTacToeModel(3, 3, 4);
+  }
+
+  /**
+   * Test that the legal move mask is refused on boards of more than 64 cells.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testLegalMoveMaskTooLarge() {
+    new TicTacToeModel(9, 8, 4).getLegalMoveMask();
+  }
+
+  /**
+   * Test that the legal moves of a board of more than 64 cells span several words, with no
+   * bits set past the last cell.
+   */
+  @Test
+  public void testGetLegalMovesLargeBoard() {
+    TicTacToe game = new TicTacToeModel(9, 9, 5);
+    game.move(0, 0);
+    game.move(7, 1); // cell 64, the first of the second word
+    game.move(8, 8);
+    long[] mask = new long[2];
+    assertEquals(78, game.getLegalMoves(mask));
+    assertEquals(-2L, mask[0]);
+    assertEquals(0xffffL & ~1L & ~(1L << 16), mask[1]);
+    int[] moves = new int[81];
+    assertEquals(78, game.getLegalMoves(moves));
+    assertEquals(1, moves[0]);
+    assertEquals(63, moves[62]);
+    assertEquals(65, moves[63]);
+    assertEquals(79, moves[77]);
+    game.undo();
+    assertEquals(79, game.getLegalMoves(mask));
+    assertEquals(0x1ffffL & ~1L, mask[1]);
+  }
+}
@@ -0,0 +1,86 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import tictactoe.MctsMovePolicy;
+import tictactoe.MovePolicy;
+import tictactoe.TicTacToe;
+import tictactoe.TicTacToeModel;
+
+/**
+ * Test cases for the Monte Carlo tree search policy.
+ */
+public class MctsMovePolicyTest {
+
+  /**
+   * Test that an immediate win is taken.
+   */
+  @Test
+  public void testTakesWin() {
+    TicTacToe game = new TicTacToeModel();
+    game.move(0, 0);
+    game.move(1, 0);
+    game.move(0, 1);
+    game.move(1, 1);
+    MovePolicy policy = new MctsMovePolicy(100, TimeUnit.MILLISECONDS, 1);
+    assertEquals(2, policy.chooseMove(game));
+  }
+
+  /**
+   * Test that an immediate loss is blocked, with several trees.
+   */
+  @Test
+  public void testBlocksLoss() {
+    TicTacToe game = new TicTacToeModel();
+    game.move(0, 0);
+    game.move(1, 1);
+    game.move(0, 1);
+    MovePolicy policy = new MctsMovePolicy(200, TimeUnit.MILLISECONDS, 2);
+    assertEquals(2, policy.chooseMove(game));
+  }
+
+  /**
+   * Test that a search on a large board picks an empty cell and leaves the game as it was,
+   * and that the policy can be used again.
+   */
+  @Test
+  public void testLargeBoard() {
+    TicTacToe game = new TicTacToeModel(15, 15, 5);
+    game.move(7, 7);
+    game.move(7, 8);
+    long hash = game.getZobristHash();
+    MovePolicy policy = new MctsMovePolicy(50, TimeUnit.MILLISECONDS, 2);
+    for (int i = 0; i < 3; i++) {
+      int cell = policy.chooseMove(game);
+      assertNull(game.getMarkAt(cell / 15, cell % 15));
+      assertEquals(hash, game.getZobristHash());
+    }
+    // a board of another size
+    TicTacToe small = new TicTacToeModel(4, 5, 4);
+    int cell = policy.chooseMove(small);
+    assertNull(small.getMarkAt(cell / 5, cell % 5));
+  }
+
+  /**
+   * Test that a finished game is rejected.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testGameOver() {
+    TicTacToe game = new TicTacToeModel();
+    game.move(0, 0);
+    game.move(1, 0);
+    game.move(0, 1);
+    game.move(1, 1);
+    game.move(0, 2);
+    new MctsMovePolicy(10, TimeUnit.MILLISECONDS).chooseMove(game);
+  }
+
+  /**
+   * Test that a budget that is not positive is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBudget() {
+    new MctsMovePolicy(0, TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,175 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import org.junit.Test;
+import tictactoe.Player;
+import tictactoe.PositionCodec;
+import tictactoe.TicTacToe;
+import tictactoe.TicTacToeModel;
+
+/**
+ * Test cases for the compact position encodings and the models built from them.
+ */
+public class PositionCodecTest {
+
+  /**
+   * Test the size of an encoding.
+   */
+  @Test
+  public void testEncodedBytes() {
+    assertEquals(2, PositionCodec.encodedBytes(3, 3));
+    assertEquals(1, PositionCodec.encodedBytes(2, 2));
+    assertEquals(3, PositionCodec.encodedBytes(3, 4));
+    assertEquals(57, PositionCodec.encodedBytes(15, 15));
+  }
+
+  /**
+   * Test the base-3 code of a known position, and the game rebuilt from it.
+   */
+  @Test
+  public void testShortCode() {
+    TicTacToe game = new TicTacToeModel();
+    game.move(0, 0); // X: 1
+    game.move(1, 1); // O: 2 * 81
+    game.move(2, 2); // X: 1 * 6561
+    assertEquals(1 + 162 + 6561, PositionCodec.encodeShort(game));
+
+    TicTacToe copy = new TicTacToeModel((short) (1 + 162 + 6561));
+    assertSameGame(game, copy);
+    assertEquals(Player.O, copy.getTurn());
+    assertEquals(0, PositionCodec.encodeShort(new TicTacToeModel((short) 0)));
+  }
+
+  /**
+   * Test that positions from random games on boards of several sizes come back the same
+   * from a buffer, and that all their moves can be taken back.
+   */
+  @Test
+  public void testRoundTrip() {
+    SplittableRandom random = new SplittableRandom(7);
+    int[][] sizes = {{3, 3, 3}, {2, 2, 2}, {3, 4, 3}, {7, 5, 4}, {15, 15, 5}};
+    for (int[] size : sizes) {
+      ByteBuffer buffer = ByteBuffer.allocate(100 * PositionCodec.encodedBytes(size[0],
+          size[1]));
+      TicTacToe[] games = new TicTacToe[100];
+      for (int i = 0; i < games.length; i++) {
+        games[i] = randomGame(random, size[0], size[1], size[2]);
+        PositionCodec.encode(games[i], buffer);
+      }
+      assertFalse(buffer.hasRemaining());
+      buffer.flip();
+      for (TicTacToe game : games) {
+        TicTacToe copy = new TicTacToeModel(size[0], size[1], size[2], buffer);
+        assertSameGame(game, copy);
+        for (int marks = countMarks(game); marks > 0; marks--) {
+          copy.undo();
+        }
+        assertEquals(0, copy.getZobristHash());
+        assertEquals(Player.X, copy.getTurn());
+        assertFalse(copy.isGameOver());
+      }
+      assertFalse(buffer.hasRemaining());
+    }
+  }
+
+  /**
+   * Test that a game rebuilt after a win takes back the winning move first.
+   */
+  @Test
+  public void testUndoWinningMove() {
+    TicTacToe game = new TicTacToeModel(4, 4, 3);
+    game.move(0, 0); // X
+    game.move(3, 3); // O
+    game.move(0, 2); // X
+    game.move(3, 2); // O
+    game.move(0, 1); // X wins across the top
+    ByteBuffer buffer = ByteBuffer.allocate(4);
+    PositionCodec.encode(game, buffer);
+    buffer.flip();
+    TicTacToe copy = new TicTacToeModel(4, 4, 3, buffer);
+    assertEquals(Player.X, copy.getWinner());
+    copy.undo();
+    assertFalse(copy.isGameOver());
+    assertNull(copy.getWinner());
+    assertEquals(Player.X, copy.getTurn());
+    copy.move(1, 1); // X plays elsewhere instead
+    assertFalse(copy.isGameOver());
+  }
+
+  /**
+   * Test that encodings of impossible positions are refused.
+   */
+  @Test
+  public void testInvalidEncodings() {
+    assertInvalid(() -> new TicTacToeModel((short) 19683));
+    assertInvalid(() -> new TicTacToeModel((short) -1));
+    // two X marks and no O
+    assertInvalid(() -> new TicTacToeModel((short) (1 + 3)));
+    // X wins across the top, then O moves
+    assertInvalid(() -> new TicTacToeModel((short) (1 + 3 + 9 + 2 * 27 + 2 * 81 + 2 * 729)));
+    // a mark value of 3
+    assertInvalid(() -> new TicTacToeModel(2, 2, 2, ByteBuffer.wrap(new byte[] {3})));
+    // bits past the last cell of a 2 * 3 board
+    assertInvalid(() -> new TicTacToeModel(2, 3, 2, ByteBuffer.wrap(new byte[] {0, 0x10})));
+  }
+
+  /**
+   * Test that writing to a buffer without room fails before writing anything.
+   */
+  @Test
+  public void testBufferTooSmall() {
+    ByteBuffer buffer = ByteBuffer.allocate(2);
+    try {
+      PositionCodec.encode(new TicTacToeModel(3, 4, 3), buffer);
+      fail("Expected BufferOverflowException");
+    } catch (BufferOverflowException e) {
+      assertEquals(0, buffer.position());
+    }
+  }
+
+  private static TicTacToe randomGame(SplittableRandom random, int rows, int cols, int k) {
+    TicTacToe game = new TicTacToeModel(rows, cols, k);
+    int[] moves = new int[rows * cols];
+    for (int p = random.nextInt(rows * cols + 1); p > 0 && !game.isGameOver(); p--) {
+      int cell = moves[random.nextInt(game.getLegalMoves(moves))];
+      game.move(cell / cols, cell % cols);
+    }
+    return game;
+  }
+
+  private static int countMarks(TicTacToe game) {
+    int marks = 0;
+    for (Player[] row : game.getBoard()) {
+      for (Player p : row) {
+        if (p != null) {
+          marks++;
+        }
+      }
+    }
+    return marks;
+  }
+
+  private static void assertSameGame(TicTacToe expected, TicTacToe actual) {
+    assertArrayEquals(expected.getBoard(), actual.getBoard());
+    assertEquals(expected.getTurn(), actual.getTurn());
+    assertEquals(expected.getWinner(), actual.getWinner());
+    assertEquals(expected.isGameOver(), actual.isGameOver());
+    assertEquals(expected.getZobristHash(), actual.getZobristHash());
+  }
+
+  private static void assertInvalid(Runnable build) {
+    try {
+      build.run();
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().startsWith("Invalid position"));
+    }
+  }
+}
@@ -0,0 +1,134 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import tictactoe.MovePolicy;
+import tictactoe.RemoteMovePolicy;
+import tictactoe.SolverMovePolicy;
+import tictactoe.TicTacToe;
+import tictactoe.TicTacToeModel;
+
+/**
+ * Test cases for playing against a policy in another process.
+ */
+public class RemoteMovePolicyTest {
+
+  /**
+   * Test that moves come back from a policy served over a connection.
+   */
+  @Test
+  public void testServedPolicy() throws Exception {
+    PipedOutputStream toServer = new PipedOutputStream();
+    PipedInputStream serverIn = new PipedInputStream(toServer);
+    PipedOutputStream toClient = new PipedOutputStream();
+    PipedInputStream clientIn = new PipedInputStream(toClient);
+    Thread server = new Thread(() -> {
+      try {
+        RemoteMovePolicy.serve(new SolverMovePolicy(), serverIn, toClient);
+        toClient.close();
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    server.start();
+
+    MovePolicy remote = new RemoteMovePolicy(clientIn, toServer);
+    TicTacToe game = new TicTacToeModel();
+    game.move(0, 0);
+    game.move(1, 1);
+    game.move(0, 1);
+    // O must block
+    assertEquals(2, remote.chooseMove(game));
+    game.move(0, 2);
+    // and X must block in turn
+    assertEquals(6, remote.chooseMove(game));
+    toServer.close();
+    server.join(5000);
+  }
+
+  /**
+   * Test that the game is described on one line.
+   */
+  @Test
+  public void testRequest() {
+    ByteArrayOutputStream sent = new ByteArrayOutputStream();
+    MovePolicy remote = new RemoteMovePolicy(ascii("3 2\n"), sent);
+    TicTacToe game = new TicTacToeModel(3, 4, 3);
+    game.move(0, 0);
+    game.move(2, 3);
+    assertEquals(9, remote.chooseMove(game));
+    assertEquals("3 4 3 X..........O\n", sent.toString(StandardCharsets.US_ASCII));
+  }
+
+  /**
+   * Test that a reply off the board is rejected.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testInvalidReply() {
+    MovePolicy remote = new RemoteMovePolicy(ascii("4 1\n"), new ByteArrayOutputStream());
+    remote.chooseMove(new TicTacToeModel());
+  }
+
+  /**
+   * Test that a reply naming a cell already taken is rejected.
+   */
+  @Test
+  public void testOccupiedReply() {
+    MovePolicy remote = new RemoteMovePolicy(ascii("2 2\n"), new ByteArrayOutputStream());
+    TicTacToe game = new TicTacToeModel();
+    game.move(1, 1);
+    try {
+      remote.chooseMove(game);
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertEquals("Not a valid move from remote player: 2 2", e.getMessage());
+    }
+  }
+
+  /**
+   * Test that a closed connection is reported.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testDisconnected() {
+    MovePolicy remote = new RemoteMovePolicy(ascii(""), new ByteArrayOutputStream());
+    remote.chooseMove(new TicTacToeModel());
+  }
+
+  /**
+   * Test that a game with too many marks for one side is rejected when served.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidGameServed() throws IOException {
+    RemoteMovePolicy.serve(new SolverMovePolicy(), ascii("3 3 3 XX.......\n"),
+        new ByteArrayOutputStream());
+  }
+
+  /**
+   * Test that a game where play went on after a win is rejected when served, whatever order
+   * the marks were played in.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testPlayAfterWinServed() throws IOException {
+    RemoteMovePolicy.serve(new SolverMovePolicy(), ascii("3 3 3 XXX.OO..O\n"),
+        new ByteArrayOutputStream());
+  }
+
+  /**
+   * Test that a finished game is rejected when served, as there is no move to make.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testFinishedGameServed() throws IOException {
+    RemoteMovePolicy.serve(new SolverMovePolicy(), ascii("3 3 3 XXXOO....\n"),
+        new ByteArrayOutputStream());
+  }
+
+  private static ByteArrayInputStream ascii(String s) {
+    return new ByteArrayInputStream(s.getBytes(StandardCharsets.US_ASCII));
+  }
+}
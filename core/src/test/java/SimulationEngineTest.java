@@ -0,0 +1,135 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import tictactoe.BitboardTicTacToeModel;
+import tictactoe.RandomMovePolicy;
+import tictactoe.SimulationEngine;
+import tictactoe.SimulationResult;
+import tictactoe.SolverMovePolicy;
+import tictactoe.TicTacToeModel;
+
+/**
+ * Test cases for simulated games between move policies.
+ */
+public class SimulationEngineTest {
+
+  /**
+   * Test that every game is counted once, and that the moves add up.
+   */
+  @Test
+  public void testRandomGames() {
+    SimulationEngine engine = new SimulationEngine(TicTacToeModel::new,
+        RandomMovePolicy::new, RandomMovePolicy::new);
+    SimulationResult result = engine.run(100_000);
+    assertEquals(100_000, result.getGames());
+    assertEquals(100_000,
+        result.getXWins() + result.getOWins() + result.getDraws());
+    // every game takes five to nine moves
+    assertTrue(result.getMoves() >= 5 * 100_000L && result.getMoves() <= 9 * 100_000L);
+    // X, moving first, wins more often at random
+    assertTrue(result.getXWins() > result.getOWins());
+    assertTrue(result.getDraws() > 0);
+  }
+
+  /**
+   * Test that perfect play from both sides always draws, on a pool of its own.
+   */
+  @Test
+  public void testSolverGames() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      SimulationEngine engine = new SimulationEngine(BitboardTicTacToeModel::new,
+          SolverMovePolicy::new, SolverMovePolicy::new);
+      SimulationResult result = engine.run(1000, pool);
+      assertEquals(1000, result.getDraws());
+      assertEquals(9000, result.getMoves());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Test that perfect play never loses against random play, on a larger board.
+   */
+  @Test
+  public void testSolverAgainstRandom() {
+    SimulationEngine engine = new SimulationEngine(() -> new TicTacToeModel(3, 4, 3),
+        SolverMovePolicy::new, RandomMovePolicy::new);
+    SimulationResult result = engine.run(2000);
+    assertEquals(0, result.getOWins());
+    assertEquals(2000, result.getGames());
+  }
+
+  /**
+   * Test that no games give an empty result.
+   */
+  @Test
+  public void testNoGames() {
+    SimulationEngine engine = new SimulationEngine(TicTacToeModel::new,
+        RandomMovePolicy::new, RandomMovePolicy::new);
+    assertEquals(0, engine.run(0).getGames());
+    assertEquals(0, engine.run(0).getMoves());
+  }
+
+  /**
+   * Test that games start from the position the supplier returns.
+   */
+  @Test
+  public void testStartPosition() {
+    SimulationEngine engine = new SimulationEngine(() -> {
+      TicTacToeModel model = new TicTacToeModel();
+      model.move(0, 0);
+      model.move(1, 0);
+      model.move(0, 1);
+      return model;
+    }, RandomMovePolicy::new, SolverMovePolicy::new);
+    SimulationResult result = engine.run(500);
+    // O must block at (0, 2), and X may still win
+    assertEquals(500, result.getGames());
+    assertTrue(result.getMoves() >= 500 && result.getMoves() <= 6 * 500);
+  }
+
+  /**
+   * Test that tasks share the models and policies made for a run, rather than making a set
+   * per task, and that the next run makes its own.
+   */
+  @Test
+  public void testPlayersReused() {
+    AtomicInteger made = new AtomicInteger();
+    SimulationEngine engine = new SimulationEngine(() -> {
+      made.incrementAndGet();
+      return new TicTacToeModel();
+    }, RandomMovePolicy::new, RandomMovePolicy::new);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      // at least 32 tasks
+      assertEquals(10_000, engine.run(10_000, pool).getGames());
+      int first = made.get();
+      assertTrue(first >= 1 && first < 16);
+      engine.run(10_000, pool);
+      assertTrue(made.get() > first);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Test that a negative number of games is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeGames() {
+    new SimulationEngine(TicTacToeModel::new, RandomMovePolicy::new, RandomMovePolicy::new)
+        .run(-1);
+  }
+
+  /**
+   * Test that a missing supplier is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullSupplier() {
+    new SimulationEngine(TicTacToeModel::new, null, RandomMovePolicy::new);
+  }
+}
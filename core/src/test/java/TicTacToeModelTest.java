@@ -1,10 +1,15 @@
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Arrays;
 import org.junit.Test;
+import tictactoe.BoardView;
+import tictactoe.MoveStatus;
 import tictactoe.Player;
 import tictactoe.TicTacToe;
 import tictactoe.TicTacToeModel;
@@ -15,7 +20,17 @@ import tictactoe.TicTacToeModel;
  */
 public class TicTacToeModelTest {
 
-  private TicTacToe ttt1 = new TicTacToeModel();
+  private TicTacToe ttt1 = makeModel();
+
+  /**
+   * Create the model under test. Subclasses override this to run the same suite
+   * against another implementation of the TicTacToe interface.
+   *
+   * @return a new game in its initial state
+   */
+  protected TicTacToe makeModel() {
+    return new TicTacToeModel();
+  }
 
 
   /**
@@ -308,6 +323,202 @@ public class TicTacToeModelTest {
   }
 
 
+  /**
+   * Test that the board view is read-only, reflects later moves, and is not re-created
+   * on every call.
+   */
+  @Test
+  public void testGetBoardView() {
+    BoardView view = ttt1.getBoardView();
+    assertSame(view, ttt1.getBoardView());
+    assertEquals(3, view.getRows());
+    assertEquals(3, view.getColumns());
+    assertNull(view.getMarkAt(2, 0));
+    diagonalWinHelper();
+    assertEquals(Player.O, view.getMarkAt(2, 0));
+    assertEquals(Player.O, view.getMarkAt(6));
+    assertEquals(Player.X, view.getMarkAt(1));
+    assertNull(view.getMarkAt(8));
+  }
+
+  /**
+   * Test that the board view rejects a cell index off the board.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBoardViewIndex() {
+    ttt1.getBoardView().getMarkAt(9);
+  }
+
+  /**
+   * Test that the Zobrist hash depends only on the position, not on the order of moves,
+   * and agrees between implementations.
+   */
+  @Test
+  public void testZobristHash() {
+    assertEquals(0, ttt1.getZobristHash());
+    ttt1.move(0, 0);
+    long afterOne = ttt1.getZobristHash();
+    assertTrue(afterOne != 0);
+    ttt1.move(1, 1);
+    ttt1.move(2, 2);
+    TicTacToe other = makeModel();
+    other.move(2, 2);
+    other.move(1, 1);
+    assertTrue(other.getZobristHash() != ttt1.getZobristHash());
+    other.move(0, 0);
+    assertEquals(ttt1.getZobristHash(), other.getZobristHash());
+    TicTacToe reference = new TicTacToeModel();
+    reference.move(0, 0);
+    assertEquals(afterOne, reference.getZobristHash());
+  }
+
+  /**
+   * Test that undo restores the turn, winner, game over state and hash, and that redo
+   * makes the move again.
+   */
+  @Test
+  public void testUndoRedo() {
+    long start = ttt1.getZobristHash();
+    diagonalWinHelper();
+    long end = ttt1.getZobristHash();
+    assertEquals(Player.O, ttt1.getWinner());
+
+    ttt1.undo();
+    assertFalse(ttt1.isGameOver());
+    assertNull(ttt1.getWinner());
+    assertEquals(Player.O, ttt1.getTurn());
+    assertNull(ttt1.getMarkAt(0, 2));
+
+    ttt1.redo();
+    assertTrue(ttt1.isGameOver());
+    assertEquals(Player.O, ttt1.getWinner());
+    assertEquals(end, ttt1.getZobristHash());
+
+    for (int i = 0; i < 6; i++) {
+      ttt1.undo();
+    }
+    assertEquals(Player.X, ttt1.getTurn());
+    assertEquals(start, ttt1.getZobristHash());
+    assertEquals("   |   |  \n"
+        + "-----------\n"
+        + "   |   |  \n"
+        + "-----------\n"
+        + "   |   |  ", ttt1.toString());
+
+    // a new move discards the moves that could have been redone
+    ttt1.move(1, 1);
+    try {
+      ttt1.redo();
+      fail("Redo after a new move should have thrown exception");
+    } catch (IllegalStateException ise) {
+      assertTrue(ise.getMessage().length() > 0);
+    }
+  }
+
+  /**
+   * Test that a line taken back by undo no longer counts towards a win.
+   */
+  @Test
+  public void testUndoThenWinElsewhere() {
+    ttt1.move(0, 0); // X
+    ttt1.move(1, 0); // O
+    ttt1.move(0, 1); // X
+    ttt1.move(1, 1); // O
+    ttt1.move(0, 2); // X wins the top row
+    ttt1.undo();
+    ttt1.undo();     // O takes back the center
+    ttt1.move(2, 2); // O
+    ttt1.move(2, 0); // X
+    assertFalse(ttt1.isGameOver());
+    ttt1.move(1, 2); // O
+    ttt1.move(0, 2); // X wins the top row
+    assertEquals(Player.X, ttt1.getWinner());
+  }
+
+  /**
+   * Test that there is nothing to undo at the start of the game.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testUndoAtStart() {
+    ttt1.undo();
+  }
+
+
+  /**
+   * Test that tryMove makes legal moves and reports illegal ones without changing the game.
+   */
+  @Test
+  public void testTryMove() {
+    assertEquals(MoveStatus.OK, ttt1.tryMove(1, 1));
+    assertEquals(Player.X, ttt1.getMarkAt(1, 1));
+    long hash = ttt1.getZobristHash();
+    assertEquals(MoveStatus.OCCUPIED, ttt1.tryMove(1, 1));
+    assertEquals(MoveStatus.OUT_OF_BOUNDS, ttt1.tryMove(3, 0));
+    assertEquals(MoveStatus.OUT_OF_BOUNDS, ttt1.tryMove(0, -1));
+    assertEquals(Player.O, ttt1.getTurn());
+    assertEquals(hash, ttt1.getZobristHash());
+    ttt1.move(0, 0); // O
+    ttt1.move(0, 1); // X
+    ttt1.move(0, 2); // O
+    assertEquals(MoveStatus.OK, ttt1.tryMove(2, 1)); // X wins down the middle
+    assertTrue(ttt1.isGameOver());
+    assertEquals(MoveStatus.GAME_OVER, ttt1.tryMove(2, 2));
+    assertEquals(MoveStatus.GAME_OVER, ttt1.tryMove(5, 5));
+    assertNull(ttt1.getMarkAt(2, 2));
+  }
+
+  /**
+   * Test that the legal move mask has a bit for each empty cell, and none once the game is
+   * over.
+   */
+  @Test
+  public void testLegalMoveMask() {
+    assertEquals(0b111_111_111L, ttt1.getLegalMoveMask());
+    ttt1.move(0, 0);
+    ttt1.move(1, 2);
+    assertEquals(0b111_011_110L, ttt1.getLegalMoveMask());
+    ttt1.undo();
+    assertEquals(0b111_111_110L, ttt1.getLegalMoveMask());
+    ttt1.move(1, 0); // O
+    ttt1.move(0, 1); // X
+    ttt1.move(1, 1); // O
+    ttt1.move(0, 2); // X wins across the top
+    assertTrue(ttt1.isGameOver());
+    assertEquals(0, ttt1.getLegalMoveMask());
+    ttt1.undo();
+    assertEquals(0b111_100_100L, ttt1.getLegalMoveMask());
+  }
+
+  /**
+   * Test that the legal moves are listed into the caller's buffer and bitset in cell order,
+   * and that none are listed once the game is over.
+   */
+  @Test
+  public void testGetLegalMoves() {
+    int[] moves = new int[9];
+    long[] mask = {-1L, -1L};
+    ttt1.move(1, 1);
+    ttt1.move(0, 2);
+    assertEquals(7, ttt1.getLegalMoves(moves));
+    assertArrayEquals(new int[] {0, 1, 3, 5, 6, 7, 8}, Arrays.copyOf(moves, 7));
+    assertEquals(7, ttt1.getLegalMoves(mask));
+    assertArrayEquals(new long[] {0b111_101_011L, 0}, mask);
+    ttt1.move(0, 0); // X
+    ttt1.move(2, 1); // O
+    ttt1.move(2, 2); // X wins on the diagonal
+    assertEquals(0, ttt1.getLegalMoves(moves));
+    assertEquals(0, ttt1.getLegalMoves(mask));
+    assertArrayEquals(new long[] {0, 0}, mask);
+  }
+
+  /**
+   * Test that a buffer too short for the legal moves is refused.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetLegalMovesShortBuffer() {
+    ttt1.move(1, 1);
+    ttt1.getLegalMoves(new int[7]);
+  }
 
   /**
    * Test case where board is full AND there is a winner.
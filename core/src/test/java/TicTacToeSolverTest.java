@@ -0,0 +1,106 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import tictactoe.BitboardTicTacToeModel;
+import tictactoe.TicTacToe;
+import tictactoe.TicTacToeModel;
+import tictactoe.TicTacToeSolver;
+
+/**
+ * Test cases for the perfect-play solver.
+ */
+public class TicTacToeSolverTest {
+
+  /**
+   * Test that the empty board is a draw, and perfect play from both sides ends in a tie.
+   */
+  @Test
+  public void testPerfectPlayIsTie() {
+    TicTacToe m = new TicTacToeModel();
+    TicTacToeSolver solver = TicTacToeSolver.forGame(m);
+    assertEquals(0, solver.evaluate(m));
+    while (!m.isGameOver()) {
+      int move = solver.bestMove(m);
+      m.move(move / 3, move % 3);
+    }
+    assertNull(m.getWinner());
+    assertEquals(-1, solver.bestMove(m));
+  }
+
+  /**
+   * Test that the solver takes an immediate win rather than blocking.
+   */
+  @Test
+  public void testTakesWin() {
+    TicTacToe m = new TicTacToeModel();
+    m.move(0, 0); // X
+    m.move(1, 0); // O
+    m.move(0, 1); // X
+    m.move(1, 1); // O
+    TicTacToeSolver solver = TicTacToeSolver.forGame(m);
+    assertEquals(2, solver.bestMove(m));
+    assertEquals(5, solver.evaluate(m));
+  }
+
+  /**
+   * Test that the solver blocks the opponent's open line.
+   */
+  @Test
+  public void testBlocksLoss() {
+    TicTacToe m = new BitboardTicTacToeModel();
+    m.move(0, 0); // X
+    m.move(1, 1); // O
+    m.move(2, 2); // X
+    m.move(0, 2); // O threatens (2, 0)
+    assertEquals(6, TicTacToeSolver.forGame(m).bestMove(m));
+  }
+
+  /**
+   * Test that an edge reply to a corner opening loses.
+   */
+  @Test
+  public void testEdgeReplyLoses() {
+    TicTacToe m = new TicTacToeModel();
+    m.move(0, 0); // X takes a corner
+    m.move(0, 1); // O replies on an edge and loses
+    assertTrue(TicTacToeSolver.forGame(m).evaluate(m) > 0);
+  }
+
+  /**
+   * Test that a finished game is a loss for the player to move.
+   */
+  @Test
+  public void testEvaluateFinishedGame() {
+    TicTacToe m = new TicTacToeModel();
+    m.move(0, 0);
+    m.move(1, 0);
+    m.move(0, 1);
+    m.move(1, 1);
+    m.move(0, 2);
+    assertEquals(-5, TicTacToeSolver.forGame(m).evaluate(m));
+  }
+
+  /**
+   * Test that games of the same size share one solver, and other sizes get their own.
+   */
+  @Test
+  public void testSharedSolver() {
+    TicTacToeSolver solver = TicTacToeSolver.forGame(new TicTacToeModel());
+    assertSame(solver, TicTacToeSolver.forGame(new BitboardTicTacToeModel()));
+    TicTacToe small = new TicTacToeModel(3, 4, 3);
+    assertTrue(solver != TicTacToeSolver.forGame(small));
+    // three in a row on a 3 * 4 board is a first player win
+    assertTrue(TicTacToeSolver.forGame(small).evaluate(small) > 0);
+  }
+
+  /**
+   * Test that a board too large to solve is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testBoardTooLarge() {
+    TicTacToeSolver.forGame(TicTacToeModel.gomoku());
+  }
+}
@@ -0,0 +1,212 @@
+package tictactoe;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+/**
+ * A game board drawn as one component, for boards of any size. Each cell costs one byte.
+ * The X and O glyphs are drawn once into images for the current cell size and copied into
+ * place after that, a change to a cell repaints only that cell, and painting draws only the
+ * cells inside the clip. A click is turned into a cell by arithmetic on its position, so
+ * there is one mouse listener however many cells there are.
+ */
+class BoardPanel extends JComponent {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final byte EMPTY = 0;
+  private static final byte X = 1;
+  private static final byte O = 2;
+
+  private static final Color GRID = Color.LIGHT_GRAY;
+
+  /**
+   * Receives the clicks on the board's cells.
+   */
+  @FunctionalInterface
+  interface CellListener {
+
+    /**
+     * Called when a cell is clicked.
+     *
+     * @param row the row of the cell
+     * @param col the column of the cell
+     */
+    void cellClicked(int row, int col);
+  }
+
+  private final int rows;
+  private final int cols;
+  private final byte[] marks;
+  private CellListener listener;
+
+  // the images of the glyphs, for cells of glyphSize pixels
+  private BufferedImage xGlyph;
+  private BufferedImage oGlyph;
+  private int glyphSize;
+
+  /**
+   * Construct an empty board.
+   *
+   * @param rows the number of rows
+   * @param cols the number of columns
+   * @throws IllegalArgumentException if either is not positive
+   */
+  BoardPanel(int rows, int cols) {
+    if (rows < 1 || cols < 1) {
+      throw new IllegalArgumentException("Board must have at least one row and column.");
+    }
+    this.rows = rows;
+    this.cols = cols;
+    this.marks = new byte[rows * cols];
+    int cell = Math.max(20, Math.min(100, 600 / Math.max(rows, cols)));
+    setPreferredSize(new Dimension(cols * cell, rows * cell));
+    setBackground(Color.WHITE);
+    setOpaque(true);
+    addMouseListener(new MouseAdapter() {
+      @Override
+      public void mousePressed(MouseEvent e) {
+        if (SwingUtilities.isLeftMouseButton(e)) {
+          clicked(e.getX(), e.getY());
+        }
+      }
+    });
+  }
+
+  /**
+   * Set the listener for clicks on cells.
+   *
+   * @param listener the listener, or null for none
+   */
+  void setCellListener(CellListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Show a mark in a cell, repainting only that cell.
+   *
+   * @param row    the row of the cell
+   * @param col    the column of the cell
+   * @param player the mark, or null to empty the cell
+   */
+  void setMark(int row, int col, Player player) {
+    byte mark = player == null ? EMPTY : player == Player.X ? X : O;
+    int index = row * cols + col;
+    if (marks[index] != mark) {
+      marks[index] = mark;
+      int size = cellSize();
+      repaint(originX(size) + col * size, originY(size) + row * size, size, size);
+    }
+  }
+
+  /**
+   * Empty every cell.
+   */
+  void clear() {
+    Arrays.fill(marks, EMPTY);
+    repaint();
+  }
+
+  /**
+   * Returns the size in pixels of the square cells, fitting the board into the component.
+   */
+  private int cellSize() {
+    return Math.max(1, Math.min(getWidth() / cols, getHeight() / rows));
+  }
+
+  private int originX(int size) {
+    return (getWidth() - cols * size) / 2;
+  }
+
+  private int originY(int size) {
+    return (getHeight() - rows * size) / 2;
+  }
+
+  /**
+   * Passes a click inside the board on to the listener as a cell.
+   */
+  private void clicked(int x, int y) {
+    int size = cellSize();
+    int dx = x - originX(size);
+    int dy = y - originY(size);
+    if (listener != null && dx >= 0 && dy >= 0 && dx < cols * size && dy < rows * size) {
+      listener.cellClicked(dy / size, dx / size);
+    }
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    int size = cellSize();
+    int left = originX(size);
+    int top = originY(size);
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+    g.setColor(getBackground());
+    g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+    // only the cells that meet the clip
+    int firstRow = Math.max(0, (clip.y - top) / size);
+    int lastRow = Math.min(rows - 1, (clip.y + clip.height - top) / size);
+    int firstCol = Math.max(0, (clip.x - left) / size);
+    int lastCol = Math.min(cols - 1, (clip.x + clip.width - left) / size);
+    if (firstRow > lastRow || firstCol > lastCol) {
+      return;
+    }
+    if (size != glyphSize) {
+      xGlyph = glyph("X", Color.RED, size);
+      oGlyph = glyph("O", Color.BLUE, size);
+      glyphSize = size;
+    }
+    for (int r = firstRow; r <= lastRow; r++) {
+      int y = top + r * size;
+      for (int c = firstCol; c <= lastCol; c++) {
+        int x = left + c * size;
+        byte mark = marks[r * cols + c];
+        if (mark != EMPTY) {
+          g.drawImage(mark == X ? xGlyph : oGlyph, x, y, null);
+        }
+        g.setColor(GRID);
+        g.drawRect(x, y, size - 1, size - 1);
+      }
+    }
+  }
+
+  /**
+   * Draws a glyph into an image the size of a cell.
+   */
+  private BufferedImage glyph(String text, Color color, int size) {
+    BufferedImage image = getGraphicsConfiguration() == null
+        ? new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB)
+        : getGraphicsConfiguration().createCompatibleImage(size, size,
+            Transparency.TRANSLUCENT);
+    Graphics2D g = image.createGraphics();
+    try {
+      g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+          RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+      g.setFont(new Font("Arial", Font.BOLD, Math.max(1, size * 3 / 4)));
+      g.setColor(color);
+      FontMetrics metrics = g.getFontMetrics();
+      int x = (size - metrics.stringWidth(text)) / 2;
+      int y = (size - metrics.getHeight()) / 2 + metrics.getAscent();
+      g.drawString(text, x, y);
+    } finally {
+      g.dispose();
+    }
+    return image;
+  }
+}
@@ -0,0 +1,76 @@
+package tictactoe;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Run and play the Tic Tac Toe game on a GUI.
+ */
+public class Main {
+  /**
+   * Run and play the Tic Tac Toe game on a GUI. The first two optional arguments say who
+   * plays X and who plays O: {@code human}, {@code random}, {@code solver}, {@code mcts}, or
+   * {@code host:port} for a remote player. Both sides are human by default. The next three
+   * give the number of rows and columns and the win length, three of each by default. The
+   * last names a file to record every game in.
+   * @param args command line arguments
+   * @throws IOException if a remote player cannot be reached or the log cannot be opened
+   */
+  public static void main(String[] args) throws IOException {
+    Map<Player, MovePolicy> computers = new EnumMap<>(Player.class);
+    for (int i = 0; i < Math.min(args.length, 2); i++) {
+      MovePolicy policy = policy(args[i]);
+      if (policy != null) {
+        computers.put(i == 0 ? Player.X : Player.O, policy);
+      }
+    }
+    int rows = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+    int cols = args.length > 3 ? Integer.parseInt(args[3]) : rows;
+    int winLength = args.length > 4 ? Integer.parseInt(args[4])
+        : Math.min(5, Math.max(rows, cols));
+    TicTacToe m = new TicTacToeModel(rows, cols, winLength);
+    GameEventLog log = args.length > 5
+        ? GameEventLog.open(Paths.get(args[5]), rows, cols, winLength) : null;
+    if (log != null) {
+      // the window exits the JVM when closed, which runs this hook
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        try {
+          log.close();
+        } catch (IOException e) {
+          System.err.println("Error closing game log: " + e.getMessage());
+        }
+      }));
+    }
+    TicTacToeView v = new SwingTicTacToeView("Tic-Tac-Toe", rows, cols);
+    Features c = new SwingTicTacToeController(v, m, computers, log);
+    c.setView(v);
+  }
+
+  /**
+   * Returns the policy with the given name, or null for a human player.
+   */
+  private static MovePolicy policy(String name) throws IOException {
+    switch (name) {
+      case "human":
+        return null;
+      case "random":
+        return new RandomMovePolicy();
+      case "solver":
+        return new SolverMovePolicy();
+      case "mcts":
+        return new MctsMovePolicy(1, TimeUnit.SECONDS);
+      default:
+        int colon = name.lastIndexOf(':');
+        if (colon < 0) {
+          throw new IllegalArgumentException("Unknown player: " + name);
+        }
+        Socket socket = new Socket(name.substring(0, colon),
+            Integer.parseInt(name.substring(colon + 1)));
+        return new RemoteMovePolicy(socket.getInputStream(), socket.getOutputStream());
+    }
+  }
+}
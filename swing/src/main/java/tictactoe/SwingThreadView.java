@@ -0,0 +1,67 @@
+package tictactoe;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * A view that passes every call on to another view on the Swing event dispatch thread, with
+ * {@link SwingUtilities#invokeLater(Runnable)}, so a controller can update the view from any
+ * thread without waiting for it.
+ */
+final class SwingThreadView implements TicTacToeView {
+
+  private final TicTacToeView view;
+
+  /**
+   * Construct a view that passes calls on to the given view.
+   *
+   * @param view the view that is updated on the event dispatch thread
+   */
+  SwingThreadView(TicTacToeView view) {
+    this.view = view;
+  }
+
+  @Override
+  public void addFeatures(Features features) {
+    SwingUtilities.invokeLater(() -> view.addFeatures(features));
+  }
+
+  @Override
+  public void displayTurnX() {
+    SwingUtilities.invokeLater(view::displayTurnX);
+  }
+
+  @Override
+  public void displayTurnO() {
+    SwingUtilities.invokeLater(view::displayTurnO);
+  }
+
+  @Override
+  public void displaySelection(int i, int j, Player current) {
+    SwingUtilities.invokeLater(() -> view.displaySelection(i, j, current));
+  }
+
+  @Override
+  public void displayWinX() {
+    SwingUtilities.invokeLater(view::displayWinX);
+  }
+
+  @Override
+  public void displayWinO() {
+    SwingUtilities.invokeLater(view::displayWinO);
+  }
+
+  @Override
+  public void displayTie() {
+    SwingUtilities.invokeLater(view::displayTie);
+  }
+
+  @Override
+  public void restart() {
+    SwingUtilities.invokeLater(view::restart);
+  }
+
+  @Override
+  public void showError(String warning) {
+    SwingUtilities.invokeLater(() -> view.showError(warning));
+  }
+}
@@ -0,0 +1,253 @@
+package tictactoe;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Controller. Implementation of the Features interface.
+ * Each side is played either by a person clicking on the board, or by the computer choosing
+ * moves with a {@link MovePolicy}, such as a solver, a random bot or a
+ * {@link RemoteMovePolicy remote player}.
+ *
+ * <p>Nothing but the handing over of work runs on the Swing event dispatch thread. The game
+ * logic runs on a background game thread, the only thread that touches the model, and the
+ * computer's moves are searched for on a second background thread, so a slow search or a
+ * slow remote player holds up neither the window nor a reset. All view updates are posted
+ * back to the event dispatch thread with {@link javax.swing.SwingUtilities#invokeLater}.
+ * Games can be recorded in a {@link GameEventLog}, which is written on the game thread too.
+ */
+public class SwingTicTacToeController implements Features {
+  private TicTacToe model;
+  private final TicTacToeView view;
+  private final Map<Player, MovePolicy> computers;
+  private final ExecutorService gameThread;
+  private final ExecutorService searchThread;
+  private final GameEventLog log;
+  private volatile boolean thinking;
+
+  /**
+   * Constructor for the controller.
+   *
+   * @param v  the view of the Tic Tac Toe game.
+   * @param m the model of the Tic Tac Toe game.
+   */
+  public SwingTicTacToeController(TicTacToeView v, TicTacToe m) {
+    this(v, m, Map.of());
+  }
+
+  /**
+   * Constructor for a controller where the computer plays one side.
+   *
+   * @param v        the view of the Tic Tac Toe game.
+   * @param m        the model of the Tic Tac Toe game.
+   * @param computer the side the computer plays.
+   * @param policy   how the computer chooses its moves.
+   * @throws IllegalArgumentException if the side or the policy is null
+   */
+  public SwingTicTacToeController(TicTacToeView v, TicTacToe m, Player computer,
+      MovePolicy policy) {
+    this(v, m, single(computer, policy));
+  }
+
+  /**
+   * Constructor for a controller where the computer plays any sides.
+   *
+   * @param v         the view of the Tic Tac Toe game.
+   * @param m         the model of the Tic Tac Toe game.
+   * @param computers how the computer chooses the moves of each side it plays; the sides
+   *                  missing from the map are played by the user.
+   * @throws IllegalArgumentException if the map is null or holds a null side or policy
+   */
+  public SwingTicTacToeController(TicTacToeView v, TicTacToe m,
+      Map<Player, ? extends MovePolicy> computers) {
+    this(v, m, computers, null);
+  }
+
+  /**
+   * Constructor for a controller that records every game in a log, so that it can be
+   * replayed after the window is reset or closed.
+   *
+   * @param v         the view of the Tic Tac Toe game.
+   * @param m         the model of the Tic Tac Toe game, with no moves made.
+   * @param computers how the computer chooses the moves of each side it plays; the sides
+   *                  missing from the map are played by the user.
+   * @param log       the log to record the games in, or null to record nothing.
+   * @throws IllegalArgumentException if the map is null or holds a null side or policy, or
+   *                                  the game is not played on the log's board
+   */
+  public SwingTicTacToeController(TicTacToeView v, TicTacToe m,
+      Map<Player, ? extends MovePolicy> computers, GameEventLog log) {
+    if (computers == null) {
+      throw new IllegalArgumentException("Computer sides and policies cannot be null.");
+    }
+    this.log = log;
+    model = record(m);
+    view = new SwingThreadView(v);
+    this.computers = new EnumMap<>(Player.class);
+    for (Map.Entry<Player, ? extends MovePolicy> entry : computers.entrySet()) {
+      if (entry.getKey() == null || entry.getValue() == null) {
+        throw new IllegalArgumentException("Computer sides and policies cannot be null.");
+      }
+      this.computers.put(entry.getKey(), entry.getValue());
+    }
+    gameThread = newBackgroundThread("tictactoe-game");
+    // one search at a time, as a policy must not be used by two threads at once
+    searchThread = newBackgroundThread("tictactoe-search");
+  }
+
+  /**
+   * Returns the game, recording its moves in the log if there is one.
+   */
+  private TicTacToe record(TicTacToe game) {
+    return log == null ? game : log.record(log.newGameId(), game);
+  }
+
+  private static Map<Player, MovePolicy> single(Player computer, MovePolicy policy) {
+    if (computer == null || policy == null) {
+      throw new IllegalArgumentException("Computer side and policy cannot be null.");
+    }
+    return Map.of(computer, policy);
+  }
+
+  /**
+   * Returns an executor with one daemon thread, which does not keep the program running.
+   */
+  private static ExecutorService newBackgroundThread(String name) {
+    return Executors.newSingleThreadExecutor(r -> {
+      Thread t = new Thread(r, name);
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  @Override
+  public void setView(TicTacToeView v) {
+    new SwingThreadView(v).addFeatures(this);
+    gameThread.execute(this::playComputerMove);
+  }
+
+
+  @Override
+  public void printTurn() {
+    gameThread.execute(this::showTurn);
+  }
+
+
+  /**
+   * Shows whose turn it is. Runs on the game thread.
+   */
+  private void showTurn() {
+    if (model.getTurn() == Player.X) {
+      view.displayTurnX();
+    } else {
+      view.displayTurnO();
+    }
+  }
+
+
+  @Override
+  public void getSelection(int i, int j) {
+    if (thinking) {
+      view.showError("Wait for the computer to move.");
+      return;
+    }
+    gameThread.execute(() -> {
+      if (computers.containsKey(model.getTurn())) {
+        // clicked just before the computer's turn began
+        view.showError("Wait for the computer to move.");
+        return;
+      }
+      makeMove(i, j);
+      playComputerMove();
+    });
+  }
+
+
+  /**
+   * Makes a move and shows the result. Runs on the game thread.
+   */
+  private void makeMove(int i, int j) {
+    if (!model.isGameOver()) {
+      Player currentPlayer = model.getTurn();
+      MoveStatus status = model.tryMove(i, j);
+      if (status != MoveStatus.OK) {
+        view.showError(status.getMessage());
+      } else {
+        showTurn();
+        view.displaySelection(i, j, currentPlayer);
+        view.showError("");
+      }
+      if (model.isGameOver()) {
+        if (model.getWinner() == Player.O) {
+          view.displayWinO();
+        } else if (model.getWinner() == Player.X) {
+          view.displayWinX();
+        } else {
+          view.displayTie();
+        }
+      }
+    }
+  }
+
+
+  /**
+   * Starts the search for the computer's move if it is the computer's turn, and makes the
+   * move on the game thread once it is found. Runs on the game thread, which leaves the
+   * model alone while the search reads it, as moves are refused during the computer's turn
+   * and a reset starts a new model.
+   */
+  private void playComputerMove() {
+    MovePolicy policy = computers.get(model.getTurn());
+    if (model.isGameOver() || policy == null) {
+      return;
+    }
+    TicTacToe game = model;
+    thinking = true;
+    searchThread.execute(() -> {
+      int cell;
+      try {
+        cell = policy.chooseMove(game);
+      } catch (RuntimeException e) {
+        gameThread.execute(() -> {
+          if (game == model) {
+            thinking = false;
+            view.showError("The computer could not move.");
+          }
+        });
+        return;
+      }
+      gameThread.execute(() -> {
+        if (game != model) {
+          // the game was reset while the computer was thinking
+          return;
+        }
+        thinking = false;
+        makeMove(cell / game.getColumns(), cell % game.getColumns());
+        // the computer may play the other side too
+        playComputerMove();
+      });
+    });
+  }
+
+
+  @Override
+  public void resetGame() {
+    gameThread.execute(() -> {
+      model = record(new TicTacToeModel(model.getRows(), model.getColumns(),
+          model.getWinLength()));
+      thinking = false;
+      view.restart();
+      showTurn();
+      playComputerMove();
+    });
+  }
+
+  @Override
+  public void exitProgram() {
+    System.exit(0);
+  }
+
+
+}
@@ -14,23 +14,38 @@ import javax.swing.SwingConstants;
 
 /**
  * GUI Implementation of the TicTacToeView interface.
+ * The board is one {@link BoardPanel} drawn by hand, so boards of any size are cheap to
+ * show and to update.
  */
 public class SwingTicTacToeView extends JFrame implements TicTacToeView {
 
   private final JLabel displayTurn;
-  private final JButton[][] board;
+  private final BoardPanel board;
   private final JButton reset;
   private final JButton exit;
   private final JLabel warning;
 
   /**
-   * Initialize the window.
+   * Initialize the window with a three-by-three board.
    *
    * @param caption Caption for the window.
    */
   public SwingTicTacToeView(String caption) {
+    this(caption, 3, 3);
+  }
+
+  /**
+   * Initialize the window with a board of the given size.
+   *
+   * @param caption Caption for the window.
+   * @param rows    the number of rows on the board.
+   * @param cols    the number of columns on the board.
+   * @throws IllegalArgumentException if the board has no rows or no columns
+   */
+  public SwingTicTacToeView(String caption, int rows, int cols) {
     super(caption);
-    setPreferredSize(new Dimension(500, 500));
+    // at least 500 by 500, and larger if the board needs it
+    setMinimumSize(new Dimension(500, 500));
     setLocation(450, 200);
     setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
@@ -44,25 +59,14 @@ public class SwingTicTacToeView extends JFrame implements TicTacToeView {
     displayTurn.setHorizontalAlignment(SwingConstants.CENTER);
     this.add(displayTurn, BorderLayout.NORTH);
 
-    // create a panel for the buttons representing the game board
-    JPanel buttonPanel = new JPanel(new GridLayout(3, 3));
-    buttonPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-
-
-    // create the buttons for the game board
-    board = new JButton[3][3];
-    for (int i = 0; i < 3; i++) {
-      for (int j = 0; j < 3; j++) {
-        board[i][j] = new JButton("");
-        board[i][j].setFont(new Font("Arial", Font.BOLD, 80));
-        board[i][j].setFocusPainted(false);
-        board[i][j].setBackground(Color.WHITE);
-        buttonPanel.add(board[i][j]);
-      }
-    }
+    // create the game board, with a margin around it
+    board = new BoardPanel(rows, cols);
+    JPanel boardPanel = new JPanel(new BorderLayout());
+    boardPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+    boardPanel.add(board, BorderLayout.CENTER);
 
-    // add the button panel to the main frame
-    this.add(buttonPanel, BorderLayout.CENTER);
+    // add the board panel to the main frame
+    this.add(boardPanel, BorderLayout.CENTER);
 
     // create buttons for resetting the game and exiting the program
     reset = new JButton("Reset");
@@ -100,13 +104,7 @@ public class SwingTicTacToeView extends JFrame implements TicTacToeView {
 
   @Override
   public void addFeatures(Features features) {
-    for (int i = 0; i < 3; i++) {
-      for (int j = 0; j < 3; j++) {
-        int finalI = i;
-        int finalJ = j;
-        board[i][j].addActionListener(e -> features.getSelection(finalI, finalJ));
-      }
-    }
+    board.setCellListener(features::getSelection);
     reset.addActionListener(e -> features.resetGame());
     exit.addActionListener(e -> features.exitProgram());
 
@@ -124,14 +122,7 @@ public class SwingTicTacToeView extends JFrame implements TicTacToeView {
 
   @Override
   public void displaySelection(int i, int j, Player current) {
-    if (current == Player.X) {
-      board[i][j].setText("X");
-      board[i][j].setForeground(Color.RED);
-
-    } else {
-      board[i][j].setText("O");
-      board[i][j].setForeground(Color.BLUE);
-    }
+    board.setMark(i, j, current);
   }
 
   @Override
@@ -154,11 +145,7 @@ public class SwingTicTacToeView extends JFrame implements TicTacToeView {
 
   @Override
   public void restart() {
-    for (int i = 0; i < 3; i++) {
-      for (int j = 0; j < 3; j++) {
-        board[i][j].setText("");
-      }
-    }
+    board.clear();
     displayTurn.setForeground(Color.BLACK);
   }
 